@@ -0,0 +1,61 @@
+package com.notesapp.notes_app.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notesapp.notes_app.mapper.BenchmarkData;
+import com.notesapp.notes_app.mapper.NoteMapper;
+import com.notesapp.notes_app.model.Folder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of a note listing response, with an object mapper configured like Spring Boot's
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+	@Param({"50", "200"})
+	public int listSize;
+
+	@Param({"160", "8192"})
+	public int contentLength;
+
+	private ObjectMapper objectMapper;
+	private ApiResponse<List<NoteResponse>> response;
+
+	@Setup
+	public void setUp() {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+		Folder folder = new Folder();
+		folder.setId(1L);
+		folder.setName("Work");
+		NoteMapper noteMapper = new NoteMapper();
+		String content = BenchmarkData.prose(contentLength);
+		List<NoteResponse> notes = new ArrayList<>(listSize);
+		for (int i = 0; i < listSize; i++) {
+			notes.add(noteMapper.toNoteResponse(BenchmarkData.note(i + 1L, content, folder)));
+		}
+		response = ApiResponse.success("Notes retrieved successfully", notes, "eyJ1IjoiMjAyNi0wMS0wMVQxMDowMCIsImkiOjQyfQ");
+	}
+
+	@Benchmark
+	public byte[] serialize() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(response);
+	}
+}
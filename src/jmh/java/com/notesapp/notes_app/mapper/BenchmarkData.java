@@ -0,0 +1,37 @@
+package com.notesapp.notes_app.mapper;
+
+import com.notesapp.notes_app.model.Folder;
+import com.notesapp.notes_app.model.Note;
+
+/**
+ * Realistic-looking entities for the benchmarks
+ */
+public final class BenchmarkData {
+
+	private static final String SENTENCE =
+			"Met with the team about the quarterly plan, follow up on the open questions next week. ";
+
+	private BenchmarkData() {
+	}
+
+	/**
+	 * Text of exactly the given length made of repeated prose
+	 */
+	public static String prose(int length) {
+		StringBuilder text = new StringBuilder(length + SENTENCE.length());
+		while (text.length() < length) {
+			text.append(SENTENCE);
+		}
+		return text.substring(0, length);
+	}
+
+	public static Note note(Long id, String content, Folder folder) {
+		Note note = new Note();
+		note.setId(id);
+		note.setVersion(5L);
+		note.setTitle("Meeting notes " + id);
+		note.setContent(content);
+		note.setFolder(folder);
+		return note;
+	}
+}
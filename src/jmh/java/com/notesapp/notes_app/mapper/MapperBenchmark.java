@@ -0,0 +1,82 @@
+package com.notesapp.notes_app.mapper;
+
+import com.notesapp.notes_app.dto.FolderResponse;
+import com.notesapp.notes_app.dto.NoteResponse;
+import com.notesapp.notes_app.model.Folder;
+import com.notesapp.notes_app.model.Note;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping of a listing page. Bodies of the large content size are stored
+ * compressed, so that case includes inflating them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class MapperBenchmark {
+
+	@Param({"50", "200", "1000"})
+	public int listSize;
+
+	@Param({"160", "8192"})
+	public int contentLength;
+
+	private final NoteMapper noteMapper = new NoteMapper();
+	private final FolderMapper folderMapper = new FolderMapper();
+	private List<Note> notes;
+	private List<Folder> folders;
+
+	@Setup
+	public void setUp() {
+		Folder parent = folder(1L, null);
+		String content = BenchmarkData.prose(contentLength);
+		notes = new ArrayList<>(listSize);
+		folders = new ArrayList<>(listSize);
+		for (int i = 0; i < listSize; i++) {
+			folders.add(folder(i + 2L, parent));
+			notes.add(BenchmarkData.note(i + 1L, content, parent));
+		}
+	}
+
+	@Benchmark
+	public List<NoteResponse> toNoteResponses() {
+		List<NoteResponse> responses = new ArrayList<>(notes.size());
+		for (Note note : notes) {
+			responses.add(noteMapper.toNoteResponse(note));
+		}
+		return responses;
+	}
+
+	@Benchmark
+	public List<FolderResponse> toFolderResponses() {
+		List<FolderResponse> responses = new ArrayList<>(folders.size());
+		for (Folder folder : folders) {
+			responses.add(folderMapper.toFolderResponse(folder));
+		}
+		return responses;
+	}
+
+	private static Folder folder(Long id, Folder parent) {
+		Folder folder = new Folder();
+		folder.setId(id);
+		folder.setVersion(3L);
+		folder.setName("Folder " + id);
+		folder.setParentFolder(parent);
+		folder.setNoteCount(12);
+		folder.setSubtreeNoteCount(40);
+		return folder;
+	}
+}
@@ -0,0 +1,62 @@
+package com.notesapp.notes_app.security;
+
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request overhead of authenticating a bearer token in the JWT filter, for a token
+ * the cache has already verified
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class JwtRequestFilterBenchmark {
+
+	private JwtRequestFilter filter;
+	private String authorization;
+
+	@Setup
+	public void setUp() {
+		JwtUtil jwtUtil = new JwtUtil();
+		ReflectionTestUtils.setField(jwtUtil, "maxCachedTokens", 100_000);
+
+		filter = new JwtRequestFilter();
+		ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+		// Tokens carry the user ID, so the filter should never need to look the user up
+		ReflectionTestUtils.setField(filter, "userDetailsService", (UserDetailsService) username -> {
+			throw new UsernameNotFoundException(username);
+		});
+
+		authorization = "Bearer " + jwtUtil.generateToken(42L, "benchmark-user");
+	}
+
+	@Benchmark
+	public Object authenticateRequest() throws ServletException, IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/notes/root");
+		request.addHeader("Authorization", authorization);
+		try {
+			filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+			return SecurityContextHolder.getContext().getAuthentication();
+		} finally {
+			SecurityContextHolder.clearContext();
+		}
+	}
+}
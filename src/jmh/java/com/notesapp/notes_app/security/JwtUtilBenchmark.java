@@ -0,0 +1,60 @@
+package com.notesapp.notes_app.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of issuing an access token and of validating one, with and without the verified-token cache
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+	private JwtUtil cachingJwtUtil;
+	private JwtUtil uncachedJwtUtil;
+	private String token;
+	private String uncachedToken;
+
+	@Setup
+	public void setUp() {
+		cachingJwtUtil = new JwtUtil();
+		ReflectionTestUtils.setField(cachingJwtUtil, "maxCachedTokens", 100_000);
+		// A zero bound makes every validation parse and verify the token
+		uncachedJwtUtil = new JwtUtil();
+		ReflectionTestUtils.setField(uncachedJwtUtil, "maxCachedTokens", 0);
+
+		token = cachingJwtUtil.generateToken(42L, "benchmark-user");
+		cachingJwtUtil.validateToken(token);
+		// Every instance signs with its own random key, so each validates a token it issued itself
+		uncachedToken = uncachedJwtUtil.generateToken(42L, "benchmark-user");
+		if (!uncachedJwtUtil.validateToken(uncachedToken)) {
+			throw new IllegalStateException("Uncached validation rejected a valid token");
+		}
+	}
+
+	@Benchmark
+	public String generateToken() {
+		return cachingJwtUtil.generateToken(42L, "benchmark-user");
+	}
+
+	@Benchmark
+	public boolean validateTokenCached() {
+		return cachingJwtUtil.validateToken(token);
+	}
+
+	@Benchmark
+	public boolean validateTokenUncached() {
+		return uncachedJwtUtil.validateToken(uncachedToken);
+	}
+}
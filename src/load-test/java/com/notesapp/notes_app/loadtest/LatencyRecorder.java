@@ -0,0 +1,54 @@
+package com.notesapp.notes_app.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latencies and error count of one endpoint, recorded by a single client thread and merged afterwards
+ */
+class LatencyRecorder {
+
+	private long[] latencyMicros = new long[1024];
+	private int count;
+	private long errors;
+
+	void record(long micros, boolean error) {
+		if (count == latencyMicros.length) {
+			latencyMicros = Arrays.copyOf(latencyMicros, count * 2);
+		}
+		latencyMicros[count++] = micros;
+		if (error) {
+			errors++;
+		}
+	}
+
+	void addAll(LatencyRecorder other) {
+		if (count + other.count > latencyMicros.length) {
+			latencyMicros = Arrays.copyOf(latencyMicros, Math.max(latencyMicros.length * 2, count + other.count));
+		}
+		System.arraycopy(other.latencyMicros, 0, latencyMicros, count, other.count);
+		count += other.count;
+		errors += other.errors;
+	}
+
+	int count() {
+		return count;
+	}
+
+	long errors() {
+		return errors;
+	}
+
+	/**
+	 * Latency percentiles in milliseconds, in the order of the given fractions
+	 */
+	double[] percentilesMillis(double... fractions) {
+		long[] sorted = Arrays.copyOf(latencyMicros, count);
+		Arrays.sort(sorted);
+		double[] result = new double[fractions.length];
+		for (int i = 0; i < fractions.length; i++) {
+			result[i] = sorted.length == 0 ? 0
+					: sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * fractions[i]) - 1)] / 1000.0;
+		}
+		return result;
+	}
+}
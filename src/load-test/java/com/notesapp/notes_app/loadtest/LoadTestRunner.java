@@ -0,0 +1,346 @@
+package com.notesapp.notes_app.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.notesapp.notes_app.NotesAppApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boots the application on an in-memory H2 database in PostgreSQL mode, seeds users, folders and notes
+ * through the API, then lets concurrent clients drive a mix of login, listing, read, create, update and
+ * folder tree requests for a fixed time. Reports throughput and p50/p95/p99 latency per endpoint on the
+ * console and as JSON.
+ *
+ * Options are passed as key=value arguments (defaults in brackets): users [20], folders [20] and notes
+ * [200] per user, content [2000] characters per note, clients [64], warmup [10] and duration [30] seconds,
+ * output [load-test-result.json]. A scrape of the server's metrics is saved next to the output.
+ *
+ * Deletes are left out of the mix: they use PostgreSQL data-modifying CTEs, which H2 doesn't support.
+ */
+public class LoadTestRunner {
+
+	// Weighted request mix, weights add up to 100
+	private static final Map<String, Integer> MIX = new LinkedHashMap<>();
+
+	static {
+		MIX.put("POST /api/auth/login", 2);
+		MIX.put("GET /api/folders/tree", 8);
+		MIX.put("GET /api/folders/root", 10);
+		MIX.put("GET /api/notes/root", 10);
+		MIX.put("GET /api/notes/folder/{id}", 15);
+		MIX.put("GET /api/notes/summaries", 10);
+		MIX.put("GET /api/notes/{id}", 30);
+		MIX.put("POST /api/notes", 5);
+		MIX.put("PUT /api/notes/{id}", 10);
+	}
+
+	private static final String PASSWORD = "load-test-password";
+	private static final int BATCH_SIZE = 500;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final HttpClient client = HttpClient.newBuilder()
+			.connectTimeout(Duration.ofSeconds(10))
+			.executor(Executors.newVirtualThreadPerTaskExecutor())
+			.build();
+
+	private final Map<String, String> options;
+	private String baseUrl;
+	private String managementUrl;
+
+	// Everything a client needs to act as one seeded user
+	private record SeededUser(String username, String token, List<Long> folderIds, List<Long> noteIds) {
+	}
+
+	public LoadTestRunner(Map<String, String> options) {
+		this.options = options;
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<>();
+		for (String arg : args) {
+			int separator = arg.indexOf('=');
+			if (separator <= 0) {
+				throw new IllegalArgumentException("Expected key=value, got " + arg);
+			}
+			options.put(arg.substring(0, separator), arg.substring(separator + 1));
+		}
+		new LoadTestRunner(options).run();
+		System.exit(0);
+	}
+
+	public void run() throws Exception {
+		int users = intOption("users", 20);
+		int clients = intOption("clients", 64);
+		int warmupSeconds = intOption("warmup", 10);
+		int durationSeconds = intOption("duration", 30);
+
+		try (ConfigurableApplicationContext context = startApplication()) {
+			baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+			managementUrl = "http://localhost:" + context.getEnvironment().getProperty("local.management.port");
+
+			long seedStarted = System.nanoTime();
+			List<SeededUser> seeded = seed(users);
+			System.out.printf("Seeded %d users, %d folders and %d notes in %d s%n", users,
+					seeded.stream().mapToInt(user -> user.folderIds().size()).sum(),
+					seeded.stream().mapToInt(user -> user.noteIds().size()).sum(),
+					TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - seedStarted));
+
+			System.out.printf("Warming up for %d s with %d clients%n", warmupSeconds, clients);
+			drive(seeded, clients, warmupSeconds);
+			System.out.printf("Measuring for %d s with %d clients%n", durationSeconds, clients);
+			Map<String, LatencyRecorder> results = drive(seeded, clients, durationSeconds);
+
+			report(results, durationSeconds);
+		}
+	}
+
+	private ConfigurableApplicationContext startApplication() throws IOException {
+		Path indexDir = Files.createTempDirectory("notes-load-test-index");
+		indexDir.toFile().deleteOnExit();
+		return SpringApplication.run(NotesAppApplication.class,
+				"--server.port=0",
+				"--management.server.port=0",
+				"--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+						+ "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+				"--spring.datasource.driver-class-name=org.h2.Driver",
+				"--spring.datasource.username=sa",
+				"--spring.datasource.password=",
+				"--spring.jpa.hibernate.ddl-auto=create",
+				"--spring.jpa.show-sql=false",
+				"--notes.search.index-dir=" + indexDir,
+				"--logging.level.root=WARN");
+	}
+
+	private List<SeededUser> seed(int users) throws Exception {
+		int folders = intOption("folders", 20);
+		int notes = intOption("notes", 200);
+		String content = "Load test note body with enough prose to look like a real note. "
+				.repeat(Math.max(1, intOption("content", 2000) / 64));
+		String runId = Long.toString(System.currentTimeMillis(), 36);
+
+		List<Future<SeededUser>> futures = new ArrayList<>();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int u = 0; u < users; u++) {
+				String username = "load-" + runId + "-" + u;
+				futures.add(executor.submit(() -> seedUser(username, folders, notes, content)));
+			}
+		}
+		List<SeededUser> seeded = new ArrayList<>();
+		for (Future<SeededUser> future : futures) {
+			seeded.add(future.get());
+		}
+		return seeded;
+	}
+
+	private SeededUser seedUser(String username, int folders, int notes, String content) throws Exception {
+		String credentials = objectMapper.writeValueAsString(Map.of("username", username, "password", PASSWORD));
+		expectOk(send("POST", "/api/auth/register", null, credentials));
+		String token = login(credentials);
+
+		// Half the folders at the root, the rest nested under a random earlier folder
+		List<Long> folderIds = new ArrayList<>();
+		for (int f = 0; f < folders; f++) {
+			Map<String, Object> folder = new HashMap<>();
+			folder.put("name", "Folder " + f);
+			if (f >= folders / 2 && !folderIds.isEmpty()) {
+				folder.put("parentFolderId", folderIds.get(ThreadLocalRandom.current().nextInt(folderIds.size())));
+			}
+			JsonNode response = expectOk(send("POST", "/api/folders", token, objectMapper.writeValueAsString(folder)));
+			folderIds.add(response.path("data").path("id").asLong());
+		}
+
+		// Notes spread over the root and all folders, created through the batch endpoint
+		List<Long> noteIds = new ArrayList<>();
+		for (int start = 0; start < notes; start += BATCH_SIZE) {
+			ArrayNode operations = objectMapper.createArrayNode();
+			for (int n = start; n < Math.min(notes, start + BATCH_SIZE); n++) {
+				ObjectNode operation = operations.addObject()
+						.put("type", "CREATE")
+						.put("title", "Note " + n)
+						.put("content", content);
+				if (!folderIds.isEmpty() && n % (folderIds.size() + 1) != 0) {
+					operation.put("folderId", folderIds.get(n % folderIds.size()));
+				}
+			}
+			ObjectNode batch = objectMapper.createObjectNode();
+			batch.set("operations", operations);
+			JsonNode response = expectOk(send("POST", "/api/notes/batch", token, batch.toString()));
+			for (JsonNode created : response.path("data").path("created")) {
+				noteIds.add(created.path("id").asLong());
+			}
+		}
+		return new SeededUser(username, token, folderIds, noteIds);
+	}
+
+	private Map<String, LatencyRecorder> drive(List<SeededUser> users, int clients, int seconds) throws Exception {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+		List<Future<Map<String, LatencyRecorder>>> futures = new ArrayList<>();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int c = 0; c < clients; c++) {
+				SeededUser user = users.get(c % users.size());
+				futures.add(executor.submit(() -> runClient(user, deadline)));
+			}
+		}
+
+		Map<String, LatencyRecorder> merged = new LinkedHashMap<>();
+		MIX.keySet().forEach(endpoint -> merged.put(endpoint, new LatencyRecorder()));
+		for (Future<Map<String, LatencyRecorder>> future : futures) {
+			future.get().forEach((endpoint, recorder) -> merged.get(endpoint).addAll(recorder));
+		}
+		return merged;
+	}
+
+	private Map<String, LatencyRecorder> runClient(SeededUser user, long deadline) throws Exception {
+		Map<String, LatencyRecorder> recorders = new HashMap<>();
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		String token = user.token();
+		List<Long> noteIds = new ArrayList<>(user.noteIds());
+		String credentials = objectMapper.writeValueAsString(Map.of("username", user.username(), "password", PASSWORD));
+
+		while (System.nanoTime() < deadline) {
+			String endpoint = pick(random.nextInt(100));
+			long noteId = noteIds.get(random.nextInt(noteIds.size()));
+			long folderId = user.folderIds().isEmpty() ? 0 : user.folderIds().get(random.nextInt(user.folderIds().size()));
+			String noteJson = objectMapper.writeValueAsString(Map.of(
+					"title", "Note " + random.nextInt(1_000_000),
+					"content", "Edited " + System.nanoTime() + " " + "word ".repeat(random.nextInt(50, 400))));
+
+			long started = System.nanoTime();
+			HttpResponse<String> response;
+			try {
+				response = switch (endpoint) {
+					case "POST /api/auth/login" -> send("POST", "/api/auth/login", null, credentials);
+					case "GET /api/folders/tree" -> send("GET", "/api/folders/tree", token, null);
+					case "GET /api/folders/root" -> send("GET", "/api/folders/root", token, null);
+					case "GET /api/notes/root" -> send("GET", "/api/notes/root?size=50", token, null);
+					case "GET /api/notes/folder/{id}" -> send("GET", "/api/notes/folder/" + folderId + "?size=50", token, null);
+					case "GET /api/notes/summaries" -> send("GET", "/api/notes/summaries?size=50", token, null);
+					case "GET /api/notes/{id}" -> send("GET", "/api/notes/" + noteId, token, null);
+					case "POST /api/notes" -> send("POST", "/api/notes", token, noteJson);
+					default -> send("PUT", "/api/notes/" + noteId, token, noteJson);
+				};
+			} catch (IOException e) {
+				response = null;
+			}
+			long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started);
+
+			// Clients sharing a user may update the same note at once, a 409 is the expected answer then
+			boolean error = response == null || (response.statusCode() / 100 != 2 && response.statusCode() != 409);
+			recorders.computeIfAbsent(endpoint, key -> new LatencyRecorder()).record(micros, error);
+
+			if (!error && endpoint.equals("POST /api/notes")) {
+				noteIds.add(objectMapper.readTree(response.body()).path("data").path("id").asLong());
+			}
+		}
+		return recorders;
+	}
+
+	private void report(Map<String, LatencyRecorder> results, int seconds) throws IOException {
+		ObjectNode json = objectMapper.createObjectNode();
+		ObjectNode settings = json.putObject("options");
+		options.forEach(settings::put);
+		ObjectNode endpoints = json.putObject("endpoints");
+
+		System.out.printf("%-30s %10s %10s %8s %9s %9s %9s %9s%n",
+				"Endpoint", "Requests", "Req/s", "Errors", "p50 ms", "p95 ms", "p99 ms", "max ms");
+		LatencyRecorder total = new LatencyRecorder();
+		for (Map.Entry<String, LatencyRecorder> entry : results.entrySet()) {
+			print(entry.getKey(), entry.getValue(), seconds, endpoints.putObject(entry.getKey()));
+			total.addAll(entry.getValue());
+		}
+		print("Total", total, seconds, json.putObject("total"));
+
+		File output = new File(options.getOrDefault("output", "load-test-result.json"));
+		objectMapper.writerWithDefaultPrettyPrinter().writeValue(output, json);
+		System.out.println("Results written to " + output.getAbsolutePath());
+
+		// The server side view of the same run: per-request SQL counts, pool waits, hashing and token timings
+		File metrics = new File(output.getAbsoluteFile().getParentFile(), "load-test-metrics.prom");
+		try {
+			HttpRequest scrape = HttpRequest.newBuilder(URI.create(managementUrl + "/actuator/prometheus")).GET().build();
+			Files.writeString(metrics.toPath(), client.send(scrape, HttpResponse.BodyHandlers.ofString()).body());
+			System.out.println("Server metrics written to " + metrics.getAbsolutePath());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void print(String name, LatencyRecorder recorder, int seconds, ObjectNode json) {
+		double[] percentiles = recorder.percentilesMillis(0.50, 0.95, 0.99, 1.0);
+		double throughput = recorder.count() / (double) seconds;
+		System.out.printf("%-30s %10d %10.1f %8d %9.1f %9.1f %9.1f %9.1f%n", name, recorder.count(), throughput,
+				recorder.errors(), percentiles[0], percentiles[1], percentiles[2], percentiles[3]);
+		json.put("requests", recorder.count())
+				.put("throughput", throughput)
+				.put("errors", recorder.errors())
+				.put("p50Millis", percentiles[0])
+				.put("p95Millis", percentiles[1])
+				.put("p99Millis", percentiles[2])
+				.put("maxMillis", percentiles[3]);
+	}
+
+	private static String pick(int roll) {
+		int cumulative = 0;
+		for (Map.Entry<String, Integer> entry : MIX.entrySet()) {
+			cumulative += entry.getValue();
+			if (roll < cumulative) {
+				return entry.getKey();
+			}
+		}
+		throw new IllegalStateException("Mix weights add up to " + cumulative);
+	}
+
+	private String login(String credentials) throws Exception {
+		return expectOk(send("POST", "/api/auth/login", null, credentials)).path("data").path("accessToken").asText();
+	}
+
+	private HttpResponse<String> send(String method, String path, String token, String json)
+			throws IOException, InterruptedException {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+				.timeout(Duration.ofSeconds(60))
+				.method(method, json == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(json));
+		if (json != null) {
+			request.header("Content-Type", "application/json");
+		}
+		if (token != null) {
+			request.header("Authorization", "Bearer " + token);
+		}
+		return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private JsonNode expectOk(HttpResponse<String> response) throws IOException {
+		if (response.statusCode() / 100 != 2) {
+			throw new IllegalStateException(response.request().method() + " " + response.request().uri()
+					+ " answered " + response.statusCode() + ": " + response.body());
+		}
+		return objectMapper.readTree(response.body());
+	}
+
+	private int intOption(String name, int defaultValue) {
+		String value = options.get(name);
+		return value != null ? Integer.parseInt(value) : defaultValue;
+	}
+}
@@ -0,0 +1,176 @@
+package com.notesapp.notes_app.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP benchmark of the note endpoints, used to compare the platform and virtual thread
+ * request execution modes. Compiled with the load-test profile and needs nothing else at runtime,
+ * run it once against each mode on the same database:
+ *
+ *   ./mvnw -Pload-test test-compile
+ *   ./mvnw spring-boot:run -Dspring-boot.run.arguments="--spring.threads.virtual.enabled=false
+ *       --notes.response-cache.enabled=false"
+ *   java -cp target/test-classes com.notesapp.notes_app.loadtest.ThreadModeBenchmark http://localhost:8081 400 30
+ *
+ * then restart with --spring.threads.virtual.enabled=true and run it again. Arguments are the base URL,
+ * the number of concurrent clients (pick more than Tomcat's 200 worker threads to see the difference)
+ * and the measured duration in seconds. Each client loops over a mix of 90% reads (note by ID, root
+ * listing, summaries) and 10% full note updates. A fresh user with 200 notes is created for every run.
+ */
+public class ThreadModeBenchmark {
+
+	private static final int NOTES = 200;
+	private static final int WARMUP_SECONDS = 10;
+	private static final Pattern ACCESS_TOKEN = Pattern.compile("\"accessToken\"\\s*:\\s*\"([^\"]+)\"");
+	private static final Pattern DATA_ID = Pattern.compile("\"data\"\\s*:\\s*\\{\\s*\"id\"\\s*:\\s*(\\d+)");
+
+	private static final HttpClient client = HttpClient.newBuilder()
+			.connectTimeout(Duration.ofSeconds(10))
+			.executor(Executors.newVirtualThreadPerTaskExecutor())
+			.build();
+
+	public static void main(String[] args) throws Exception {
+		String baseUrl = args.length > 0 ? args[0] : "http://localhost:8081";
+		int clients = args.length > 1 ? Integer.parseInt(args[1]) : 400;
+		int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+		String token = createUser(baseUrl);
+		List<Long> noteIds = new ArrayList<>();
+		for (int i = 0; i < NOTES; i++) {
+			String body = send(post(baseUrl + "/api/notes", token, noteJson(i, 0)));
+			Matcher id = DATA_ID.matcher(body);
+			if (!id.find()) {
+				throw new IllegalStateException("Unexpected create response: " + body);
+			}
+			noteIds.add(Long.parseLong(id.group(1)));
+		}
+
+		System.out.printf("Warming up for %d s with %d clients%n", WARMUP_SECONDS, clients);
+		run(baseUrl, token, noteIds, clients, WARMUP_SECONDS);
+		System.out.printf("Measuring for %d s with %d clients%n", seconds, clients);
+		Result result = run(baseUrl, token, noteIds, clients, seconds);
+
+		long[] latencies = result.latencyMicros();
+		Arrays.sort(latencies);
+		System.out.printf("requests: %d, errors: %d, throughput: %.1f req/s%n",
+				latencies.length, result.errors(), latencies.length / (double) seconds);
+		System.out.printf("latency ms p50: %.1f, p95: %.1f, p99: %.1f, max: %.1f%n",
+				percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99),
+				latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1000.0);
+		System.exit(0);
+	}
+
+	private record Result(long[] latencyMicros, long errors) {
+	}
+
+	private static Result run(String baseUrl, String token, List<Long> noteIds, int clients, int seconds)
+			throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+		List<List<Long>> latencies = new ArrayList<>();
+		AtomicLong errors = new AtomicLong();
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int c = 0; c < clients; c++) {
+				List<Long> clientLatencies = new ArrayList<>();
+				latencies.add(clientLatencies);
+				executor.submit(() -> {
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					int iteration = 0;
+					while (System.nanoTime() < deadline) {
+						long noteId = noteIds.get(random.nextInt(noteIds.size()));
+						int pick = random.nextInt(10);
+						HttpRequest request = switch (pick) {
+							case 0 -> put(baseUrl + "/api/notes/" + noteId, token, noteJson(noteId, ++iteration));
+							case 1, 2 -> get(baseUrl + "/api/notes/root?size=50", token);
+							case 3, 4 -> get(baseUrl + "/api/notes/summaries?size=50", token);
+							default -> get(baseUrl + "/api/notes/" + noteId, token);
+						};
+						long started = System.nanoTime();
+						try {
+							HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+							// Concurrent updates of the same note may legitimately conflict
+							if (response.statusCode() != 200 && response.statusCode() != 409) {
+								errors.incrementAndGet();
+							}
+						} catch (Exception e) {
+							errors.incrementAndGet();
+						}
+						clientLatencies.add((System.nanoTime() - started) / 1000);
+					}
+				});
+			}
+		}
+
+		return new Result(latencies.stream().flatMap(List::stream).mapToLong(Long::longValue).toArray(),
+				errors.get());
+	}
+
+	private static String createUser(String baseUrl) throws Exception {
+		String username = "bench-" + System.currentTimeMillis();
+		String credentials = "{\"username\":\"" + username + "\",\"password\":\"bench-password\"}";
+		send(post(baseUrl + "/api/auth/register", null, credentials));
+		String body = send(post(baseUrl + "/api/auth/login", null, credentials));
+		Matcher token = ACCESS_TOKEN.matcher(body);
+		if (!token.find()) {
+			throw new IllegalStateException("Unexpected login response: " + body);
+		}
+		return token.group(1);
+	}
+
+	private static String noteJson(long n, int revision) {
+		return "{\"title\":\"Bench note " + n + "\",\"content\":\""
+				+ ("Revision " + revision + " of a benchmark note. ").repeat(40) + "\"}";
+	}
+
+	private static HttpRequest get(String url, String token) {
+		return HttpRequest.newBuilder(URI.create(url)).header("Authorization", "Bearer " + token).GET().build();
+	}
+
+	private static HttpRequest post(String url, String token, String json) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(json));
+		if (token != null) {
+			builder.header("Authorization", "Bearer " + token);
+		}
+		return builder.build();
+	}
+
+	private static HttpRequest put(String url, String token, String json) {
+		return HttpRequest.newBuilder(URI.create(url))
+				.header("Authorization", "Bearer " + token)
+				.header("Content-Type", "application/json")
+				.PUT(HttpRequest.BodyPublishers.ofString(json))
+				.build();
+	}
+
+	// Creates answer 201 and everything else 200, so accept any success like LoadTestRunner
+	private static String send(HttpRequest request) throws Exception {
+		HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() / 100 != 2) {
+			throw new IllegalStateException(request.uri() + " answered " + response.statusCode() + ": " + response.body());
+		}
+		return response.body();
+	}
+
+	private static double percentile(long[] sorted, double p) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1000.0;
+	}
+}
@@ -0,0 +1,37 @@
+package com.notesapp.notes_app.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts a {@link ConcurrencyLimitedDataSource} in front of the application's data source.
+ * On by default when requests run on virtual threads, sized to the Hikari pool.
+ */
+@Component
+public class DataSourceConcurrencyLimitConfig implements BeanPostProcessor, EnvironmentAware {
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+            return bean;
+        }
+        boolean virtualThreads = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (!environment.getProperty("notes.datasource.concurrency-limit.enabled", Boolean.class, virtualThreads)) {
+            return bean;
+        }
+        int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        long acquireTimeout = environment.getProperty("spring.datasource.hikari.connection-timeout", Long.class, 30000L);
+        return new ConcurrencyLimitedDataSource(dataSource, poolSize, acquireTimeout);
+    }
+}
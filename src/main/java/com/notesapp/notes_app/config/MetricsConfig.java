@@ -0,0 +1,95 @@
+package com.notesapp.notes_app.config;
+
+import com.notesapp.notes_app.security.JwtUtil;
+import com.notesapp.notes_app.service.ChangeNotificationService;
+import com.notesapp.notes_app.service.NoteSearchService;
+import com.notesapp.notes_app.service.ResponseCacheService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the counters that the caches, the search index, the push channel and the connection
+ * limiter keep as Micrometer meters. Request timings come from Spring Boot's http.server.requests
+ * and the Hikari pool gauges from its hikaricp.connections meters.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder jwtCacheMetrics(JwtUtil jwtUtil) {
+        return registry -> {
+            FunctionCounter.builder("jwt.verified.cache.requests", jwtUtil, JwtUtil::getCacheHits)
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("jwt.verified.cache.requests", jwtUtil, JwtUtil::getCacheMisses)
+                    .tag("result", "miss").register(registry);
+            Gauge.builder("jwt.verified.cache.size", jwtUtil, JwtUtil::getCacheSize).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder responseCacheMetrics(ResponseCacheService responseCache) {
+        return registry -> {
+            FunctionCounter.builder("response.cache.requests", responseCache, ResponseCacheService::getHits)
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("response.cache.requests", responseCache, ResponseCacheService::getMisses)
+                    .tag("result", "miss").register(registry);
+            FunctionCounter.builder("response.cache.evictions", responseCache, ResponseCacheService::getEvictions)
+                    .register(registry);
+            Gauge.builder("response.cache.size", responseCache, ResponseCacheService::getSizeBytes)
+                    .baseUnit("bytes").register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder searchIndexMetrics(NoteSearchService search) {
+        return registry -> {
+            Gauge.builder("search.index.documents", search, NoteSearchService::getDocumentCount).register(registry);
+            Gauge.builder("search.index.size", search, NoteSearchService::getSizeBytes)
+                    .baseUnit("bytes").register(registry);
+            FunctionTimer.builder("search.queries", search, NoteSearchService::getQueryCount,
+                    NoteSearchService::getTotalQueryNanos, TimeUnit.NANOSECONDS).register(registry);
+            Gauge.builder("search.queries.max", search, s -> s.getMaxQueryNanos() / 1_000_000_000.0)
+                    .description("Slowest search since startup").baseUnit("seconds").register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder pushMetrics(ChangeNotificationService changeNotifications) {
+        return registry -> {
+            Gauge.builder("push.connections", changeNotifications, ChangeNotificationService::getConnectionCount)
+                    .register(registry);
+            FunctionCounter.builder("push.dropped.connections", changeNotifications,
+                    ChangeNotificationService::getDroppedConnections).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder dataSourceLimitMetrics(DataSource dataSource) {
+        return registry -> {
+            // Only wrapped when requests run on virtual threads, see DataSourceConcurrencyLimitConfig,
+            // and possibly behind other wrappers such as the statement counter
+            ConcurrencyLimitedDataSource limited;
+            try {
+                if (!dataSource.isWrapperFor(ConcurrencyLimitedDataSource.class)) {
+                    return;
+                }
+                limited = dataSource.unwrap(ConcurrencyLimitedDataSource.class);
+            } catch (SQLException e) {
+                return;
+            }
+            Gauge.builder("datasource.limit.waiting", limited, ConcurrencyLimitedDataSource::getQueueLength)
+                    .description("Requests queued for a database connection in front of the pool")
+                    .register(registry);
+            Gauge.builder("datasource.limit.active", limited, ConcurrencyLimitedDataSource::getActiveConnections)
+                    .register(registry);
+        };
+    }
+}
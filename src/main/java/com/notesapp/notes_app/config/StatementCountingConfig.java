@@ -0,0 +1,33 @@
+package com.notesapp.notes_app.config;
+
+import com.notesapp.notes_app.metrics.StatementCountingDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts a {@link StatementCountingDataSource} in front of the application's data source,
+ * so every request's SQL statements are counted, see RequestQueryMetricsFilter
+ */
+@Component
+public class StatementCountingConfig implements BeanPostProcessor, EnvironmentAware {
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || bean instanceof StatementCountingDataSource
+                || !environment.getProperty("notes.sql.counting.enabled", Boolean.class, true)) {
+            return bean;
+        }
+        return new StatementCountingDataSource(dataSource);
+    }
+}
@@ -0,0 +1,42 @@
+package com.notesapp.notes_app.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Gives back a permit taken on the request thread for a streaming response. The streaming body releases
+ * it when it finishes, and the request's async completion releases it if the body never ran, e.g. after
+ * a timeout or a rejected task.
+ */
+final class AsyncPermits {
+
+    private AsyncPermits() {
+    }
+
+    /**
+     * @param request The request the streaming response is for
+     * @param release Gives the permit back, called at most once
+     * @return Releases the permit, for the streaming body to call when it is done
+     */
+    static Runnable releaseOnCompletion(HttpServletRequest request, Runnable release) {
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable releaseOnce = () -> {
+            if (released.compareAndSet(false, true)) {
+                release.run();
+            }
+        };
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(AsyncPermits.class.getName(),
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                        releaseOnce.run();
+                    }
+                });
+        return releaseOnce;
+    }
+}
@@ -6,6 +6,7 @@ import com.notesapp.notes_app.dto.RefreshTokenRequest;
 import com.notesapp.notes_app.model.RefreshToken;
 import com.notesapp.notes_app.model.User;
 import com.notesapp.notes_app.repository.UserRepository;
+import com.notesapp.notes_app.security.AuthenticatedUser;
 import com.notesapp.notes_app.security.JwtUtil;
 import com.notesapp.notes_app.service.RefreshTokenService;
 import com.notesapp.notes_app.service.UserService;
@@ -97,9 +98,10 @@ public class AuthController {
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
             String username = loginRequest.getUsername();
+            AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
 
             // Generate a new JWT access token
-            String accessToken = jwtUtil.generateToken(username);
+            String accessToken = jwtUtil.generateToken(principal.getId(), username);
 
             // Create a new refresh token
             RefreshToken refreshToken = refreshTokenService.createRefreshToken(username);
@@ -165,7 +167,7 @@ public class AuthController {
         User user = refreshToken.getUser();
 
         // Generate new access token
-        String accessToken = jwtUtil.generateToken(user.getUsername());
+        String accessToken = jwtUtil.generateToken(user.getId(), user.getUsername());
 
         // Create JWT response with new access token and existing refresh token
         JwtResponse jwtResponse = new JwtResponse(
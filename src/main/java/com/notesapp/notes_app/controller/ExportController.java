@@ -0,0 +1,87 @@
+package com.notesapp.notes_app.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notesapp.notes_app.dto.ApiResponse;
+import com.notesapp.notes_app.service.ExportService;
+import com.notesapp.notes_app.service.UserService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * REST Controller for exporting a user's whole library
+ */
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    public static final String FORMAT_NDJSON = "ndjson";
+    public static final String FORMAT_ZIP = "zip";
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Stream all of the current user's folders and notes. The response is written while the notes are read,
+     * so it starts right away and has no Content-Length.
+     * @param format "ndjson" for one JSON object per line (folders, then notes, then an end line with the counts),
+     *               or "zip" for Markdown files in directories mirroring the folder hierarchy
+     * @return The export, 400 for an unknown format, or 503 if too many exports are already running
+     */
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = FORMAT_NDJSON) String format,
+                                                        HttpServletRequest request) {
+        if (!FORMAT_NDJSON.equals(format) && !FORMAT_ZIP.equals(format)) {
+            return error(HttpStatus.BAD_REQUEST, "Unknown export format, use " + FORMAT_NDJSON + " or " + FORMAT_ZIP);
+        }
+        // The body is written on another thread, which doesn't carry the security context
+        Long userId = userService.getCurrentUserId();
+        if (!exportService.tryAcquire()) {
+            return error(HttpStatus.SERVICE_UNAVAILABLE, "Too many exports in progress, try again later");
+        }
+
+        Runnable release = AsyncPermits.releaseOnCompletion(request, exportService::release);
+        boolean zip = FORMAT_ZIP.equals(format);
+        StreamingResponseBody body = out -> {
+            try {
+                if (zip) {
+                    exportService.writeMarkdownZip(userId, out);
+                } else {
+                    exportService.writeNdjson(userId, out);
+                }
+            } finally {
+                release.run();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(zip ? MediaType.parseMediaType("application/zip") : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("notes-export." + format).build().toString())
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .body(body);
+    }
+
+    /**
+     * The usual error envelope; a streaming handler method can only return streaming bodies
+     */
+    private ResponseEntity<StreamingResponseBody> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, ApiResponse.error(message)));
+    }
+}
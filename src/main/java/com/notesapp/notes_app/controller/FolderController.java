@@ -1,16 +1,24 @@
 package com.notesapp.notes_app.controller;
 
 import com.notesapp.notes_app.dto.ApiResponse;
+import com.notesapp.notes_app.dto.FolderDeletionResponse;
 import com.notesapp.notes_app.dto.FolderRequest;
 import com.notesapp.notes_app.dto.FolderResponse;
+import com.notesapp.notes_app.exception.PreconditionFailedException;
+import com.notesapp.notes_app.mapper.FolderMapper;
+import com.notesapp.notes_app.service.CollectionVersionService;
 import com.notesapp.notes_app.service.FolderService;
+import com.notesapp.notes_app.service.ResponseCacheService;
+import com.notesapp.notes_app.service.UserService;
 
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -24,14 +32,34 @@ public class FolderController {
     @Autowired
     private FolderService folderService;
 
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CollectionVersionService collectionVersionService;
+
+    @Autowired
+    private ResponseCacheService responseCacheService;
+
+    // Injected here rather than read off FolderService, whose transactional proxy doesn't carry its fields
+    @Autowired
+    private FolderMapper folderMapper;
+
     /**
      * Get all root folders for the current user
      * @return List of root folders
      */
     @GetMapping("/root")
-    public ResponseEntity<ApiResponse<List<FolderResponse>>> getRootFolders() {
-        List<FolderResponse> folders = folderService.getRootFolders();
-        return ResponseEntity.ok(ApiResponse.success("Root folders retrieved successfully", folders));
+    public ResponseEntity<?> getRootFolders(WebRequest webRequest) {
+        Long userId = userService.getCurrentUserId();
+        long version = collectionVersionService.getCollectionVersion(userId);
+        if (webRequest.checkNotModified(CollectionVersionService.toETag(userId, version))) {
+            return null;
+        }
+        return responseCacheService.getOrLoad(userId, version, "folders/root", () -> {
+            List<FolderResponse> folders = folderService.getRootFolders();
+            return ResponseEntity.ok(ApiResponse.success("Root folders retrieved successfully", folders));
+        });
     }
 
     /**
@@ -40,7 +68,11 @@ public class FolderController {
      * @return List of subfolders
      */
     @GetMapping("/parent/{parentId}")
-    public ResponseEntity<ApiResponse<List<FolderResponse>>> getSubfolders(@PathVariable Long parentId) {
+    public ResponseEntity<ApiResponse<List<FolderResponse>>> getSubfolders(@PathVariable Long parentId,
+                                                                          WebRequest webRequest) {
+        if (webRequest.checkNotModified(folderService.getCollectionETag())) {
+            return null;
+        }
         try {
             List<FolderResponse> folders = folderService.getSubfolders(parentId);
             return ResponseEntity.ok(ApiResponse.success("Subfolders retrieved successfully", folders));
@@ -50,6 +82,31 @@ public class FolderController {
         }
     }
 
+    /**
+     * Get the folder hierarchy in a single call
+     * @param rootId Optional folder to return the subtree of, defaults to the whole hierarchy
+     * @param maxDepth Optional number of folder levels to return
+     * @param includeNotes Whether to include note summaries in each folder
+     * @return Nested folders
+     */
+    @GetMapping("/tree")
+    public ResponseEntity<ApiResponse<List<FolderResponse>>> getFolderTree(
+            @RequestParam(required = false) Long rootId,
+            @RequestParam(required = false) Integer maxDepth,
+            @RequestParam(defaultValue = "false") boolean includeNotes,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(folderService.getCollectionETag())) {
+            return null;
+        }
+        try {
+            List<FolderResponse> tree = folderService.getFolderTree(rootId, maxDepth, includeNotes);
+            return ResponseEntity.ok(ApiResponse.success("Folder tree retrieved successfully", tree));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     /**
      * Create a new folder
      * @param folderRequest Folder details
@@ -73,10 +130,14 @@ public class FolderController {
      * @return Folder if found and belongs to current user
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<FolderResponse>> getFolderById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<FolderResponse>> getFolderById(@PathVariable Long id, WebRequest webRequest) {
+        // The response includes note counts, so it changes with the collection rather than the folder version
+        if (webRequest.checkNotModified(folderService.getCollectionETag())) {
+            return null;
+        }
         return folderService.getFolderForCurrentUser(id)
                 .map(folder -> {
-                    FolderResponse response = folderService.folderMapper.toFolderResponse(folder);
+                    FolderResponse response = folderMapper.toFolderResponse(folder);
                     return ResponseEntity.ok(ApiResponse.success("Folder retrieved successfully", response));
                 })
                 .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -87,16 +148,24 @@ public class FolderController {
      * Update a folder
      * @param id Folder ID
      * @param folderRequest Updated folder details
+     * @param ifMatch Optional version the update is conditional on
      * @return Updated folder
      */
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<FolderResponse>> updateFolder(
             @PathVariable Long id,
-            @Valid @RequestBody FolderRequest folderRequest) {
+            @Valid @RequestBody FolderRequest folderRequest,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
 
         try {
-            FolderResponse updatedFolder = folderService.updateFolder(id, folderRequest);
+            FolderResponse updatedFolder = folderService.updateFolder(id, folderRequest,
+                    IfMatch.expectedVersion(ifMatch));
             return ResponseEntity.ok(ApiResponse.success("Folder updated successfully", updatedFolder));
+        } catch (PreconditionFailedException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return concurrentWriteResponse(ifMatch);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(ApiResponse.error(e.getMessage()));
@@ -104,18 +173,39 @@ public class FolderController {
     }
 
     /**
-     * Delete a folder
+     * Delete a folder with all of its subfolders and notes
      * @param id Folder ID
-     * @return Success message
+     * @param ifMatch Optional version the deletion is conditional on
+     * @return Number of folders and notes removed
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<ApiResponse<Void>> deleteFolder(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<FolderDeletionResponse>> deleteFolder(
+            @PathVariable Long id,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         try {
-            folderService.deleteFolder(id);
-            return ResponseEntity.ok(ApiResponse.success("Folder deleted successfully", null));
+            FolderDeletionResponse deleted = folderService.deleteFolder(id, IfMatch.expectedVersion(ifMatch));
+            return ResponseEntity.ok(ApiResponse.success("Folder deleted successfully", deleted));
+        } catch (PreconditionFailedException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return concurrentWriteResponse(ifMatch);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(ApiResponse.error(e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Response for a folder update that lost a race with another write of the same folder.
+     * Conditional requests get 412 like any other failed precondition, unconditional ones 409.
+     */
+    private <T> ResponseEntity<ApiResponse<T>> concurrentWriteResponse(String ifMatch) {
+        HttpStatus status = ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status)
+                .body(ApiResponse.error("Folder was changed by another request, reload and retry"));
+    }
+}
@@ -0,0 +1,37 @@
+package com.notesapp.notes_app.controller;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the entity version a client expects from an If-Match header. Accepted forms are the version
+ * from a response body ("7" or 7) and the ETag returned by GET /api/notes/{id}.
+ */
+final class IfMatch {
+
+    private static final Pattern VERSION = Pattern.compile("\"?(\\d+)\"?");
+    private static final Pattern NOTE_ETAG = Pattern.compile("\"note-\\d+-(\\d+)-\\d+\"");
+
+    private IfMatch() {
+    }
+
+    /**
+     * @param header The If-Match header value, may be null
+     * @return The expected version, or null if the write is unconditional (no header or *)
+     * @throws IllegalArgumentException if the header is not in one of the accepted forms
+     */
+    static Long expectedVersion(String header) {
+        if (header == null || header.isBlank() || header.trim().equals("*")) {
+            return null;
+        }
+
+        String value = header.trim();
+        for (Pattern pattern : new Pattern[]{VERSION, NOTE_ETAG}) {
+            Matcher matcher = pattern.matcher(value);
+            if (matcher.matches()) {
+                return Long.parseLong(matcher.group(1));
+            }
+        }
+        throw new IllegalArgumentException("If-Match must be a single entity version or ETag");
+    }
+}
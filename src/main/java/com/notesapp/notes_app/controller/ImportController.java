@@ -0,0 +1,93 @@
+package com.notesapp.notes_app.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notesapp.notes_app.dto.ApiResponse;
+import com.notesapp.notes_app.dto.ImportProgress;
+import com.notesapp.notes_app.service.ImportService;
+import com.notesapp.notes_app.service.UserService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+
+/**
+ * REST Controller for importing a library from an export or a zip of Markdown files
+ */
+@RestController
+@RequestMapping("/api/import")
+public class ImportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Import folders and notes into the current user's library. The upload is the raw request body, not a
+     * multipart form, so it is parsed as it arrives and never buffered. Folders with the same name and parent
+     * as an existing folder are merged into it.
+     * @param format "ndjson" for a library export, or "zip" for Markdown and text files in directories
+     * @param in The request body
+     * @return A stream of JSON lines: "progress" after every committed chunk of notes, "error" for every item
+     *         that was not imported as is, and a final "done" line with the totals;
+     *         400 for an unknown format, or 503 if too many imports are already running
+     */
+    @PostMapping
+    public ResponseEntity<StreamingResponseBody> importLibrary(
+            @RequestParam(defaultValue = ExportController.FORMAT_NDJSON) String format, InputStream in,
+            HttpServletRequest request) {
+        if (!ExportController.FORMAT_NDJSON.equals(format) && !ExportController.FORMAT_ZIP.equals(format)) {
+            return error(HttpStatus.BAD_REQUEST, "Unknown import format, use "
+                    + ExportController.FORMAT_NDJSON + " or " + ExportController.FORMAT_ZIP);
+        }
+        // The import runs on another thread, which doesn't carry the security context
+        Long userId = userService.getCurrentUserId();
+        if (!importService.tryAcquire()) {
+            return error(HttpStatus.SERVICE_UNAVAILABLE, "Too many imports in progress, try again later");
+        }
+
+        Runnable release = AsyncPermits.releaseOnCompletion(request, importService::release);
+        boolean zip = ExportController.FORMAT_ZIP.equals(format);
+        StreamingResponseBody body = out -> {
+            try {
+                ImportService.ProgressListener listener = progress -> {
+                    out.write(objectMapper.writeValueAsBytes(progress));
+                    out.write('\n');
+                    out.flush();
+                };
+                ImportProgress done = zip
+                        ? importService.importMarkdownZip(userId, in, listener)
+                        : importService.importNdjson(userId, in, listener);
+                listener.onProgress(done);
+            } finally {
+                release.run();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .body(body);
+    }
+
+    /**
+     * The usual error envelope; a streaming handler method can only return streaming bodies
+     */
+    private ResponseEntity<StreamingResponseBody> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, ApiResponse.error(message)));
+    }
+}
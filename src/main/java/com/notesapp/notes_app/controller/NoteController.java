@@ -165,26 +165,59 @@
 package com.notesapp.notes_app.controller;
 
 import com.notesapp.notes_app.dto.ApiResponse;
+import com.notesapp.notes_app.dto.ChangeNotification;
+import com.notesapp.notes_app.dto.ContentSplice;
+import com.notesapp.notes_app.dto.NoteBatchRequest;
+import com.notesapp.notes_app.dto.NoteBatchResponse;
+import com.notesapp.notes_app.dto.NoteCursor;
+import com.notesapp.notes_app.dto.NotePatchRequest;
+import com.notesapp.notes_app.dto.NotePatchResponse;
 import com.notesapp.notes_app.dto.NoteRequest;
 import com.notesapp.notes_app.dto.NoteResponse;
+import com.notesapp.notes_app.dto.NoteSearchResponse;
+import com.notesapp.notes_app.dto.NoteSummaryResponse;
+import com.notesapp.notes_app.dto.NoteVersionStamp;
+import com.notesapp.notes_app.dto.QuickOpenEntry;
+import com.notesapp.notes_app.exception.BatchValidationException;
 import com.notesapp.notes_app.mapper.NoteMapper;
 import com.notesapp.notes_app.model.Folder;
 import com.notesapp.notes_app.model.Note;
 import com.notesapp.notes_app.model.User;
 import com.notesapp.notes_app.repository.NoteRepository;
+import com.notesapp.notes_app.service.CollectionVersionService;
 import com.notesapp.notes_app.service.FolderService;
+import com.notesapp.notes_app.service.NoteBatchService;
+import com.notesapp.notes_app.service.NoteSearchService;
+import com.notesapp.notes_app.service.QuickOpenService;
+import com.notesapp.notes_app.service.ResponseCacheService;
+import com.notesapp.notes_app.service.SyncService;
 import com.notesapp.notes_app.service.UserService;
 
 import jakarta.validation.Valid;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -194,6 +227,8 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/notes")
 public class NoteController {
 
+    private static final Logger logger = LoggerFactory.getLogger(NoteController.class);
+
     @Autowired
     private NoteRepository noteRepository;
 
@@ -206,35 +241,75 @@ public class NoteController {
     @Autowired
     private NoteMapper noteMapper;
 
+    @Autowired
+    private NoteSearchService noteSearchService;
+
+    @Autowired
+    private QuickOpenService quickOpenService;
+
+    @Autowired
+    private NoteBatchService noteBatchService;
+
+    @Autowired
+    private CollectionVersionService collectionVersionService;
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ResponseCacheService responseCacheService;
+
+    @Value("${notes.pagination.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${notes.pagination.max-page-size:200}")
+    private int maxPageSize;
+
+    @Value("${notes.batch.max-operations:500}")
+    private int maxBatchOperations;
+
     /**
-     * Retrieves all notes belonging to the currently authenticated user
-     * @return List of note DTOs for the current user
+     * Retrieves a page of notes belonging to the currently authenticated user, most recently updated first
+     * @param cursor Opaque cursor from a previous page's nextCursor, omitted for the first page
+     * @param size Maximum number of notes to return
+     * @return Page of note DTOs for the current user
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<NoteResponse>>> getAllNotes() {
-        List<Note> notes = noteRepository.findByUserId(userService.getCurrentUserId());
-
-        // Convert entities to DTOs
-        List<NoteResponse> noteResponses = notes.stream()
-                .map(noteMapper::toNoteResponse)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(ApiResponse.success("Notes retrieved successfully", noteResponses));
+    public ResponseEntity<ApiResponse<List<NoteResponse>>> getAllNotes(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        Long userId = userService.getCurrentUserId();
+        if (webRequest.checkNotModified(collectionVersionService.getCollectionETag(userId))) {
+            return null;
+        }
+        return toPageResponse("Notes retrieved successfully", cursor, size,
+                (after, limit) -> noteRepository.findPageByUserId(userId, after.updatedAt(), after.id(), limit));
     }
 
     /**
      * Get notes that aren't in any folder (root level)
-     * @return List of root level notes
+     * @param cursor Opaque cursor from a previous page's nextCursor, omitted for the first page
+     * @param size Maximum number of notes to return
+     * @return Page of root level notes
      */
     @GetMapping("/root")
-    public ResponseEntity<ApiResponse<List<NoteResponse>>> getRootNotes() {
-        List<Note> notes = noteRepository.findByFolderIsNullAndUserId(userService.getCurrentUserId());
-
-        List<NoteResponse> noteResponses = notes.stream()
-                .map(noteMapper::toNoteResponse)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(ApiResponse.success("Root notes retrieved successfully", noteResponses));
+    public ResponseEntity<?> getRootNotes(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        Long userId = userService.getCurrentUserId();
+        long version = collectionVersionService.getCollectionVersion(userId);
+        if (webRequest.checkNotModified(CollectionVersionService.toETag(userId, version))) {
+            return null;
+        }
+        return responseCacheService.getOrLoad(userId, version, "notes/root?cursor=" + cursor + "&size=" + size,
+                () -> toPageResponse("Root notes retrieved successfully", cursor, size,
+                        (after, limit) -> noteRepository.findPageByFolderIsNullAndUserId(
+                                userId, after.updatedAt(), after.id(), limit)));
     }
 
     /**
@@ -243,6 +318,7 @@ public class NoteController {
      * @return The created note as a response DTO
      */
     @PostMapping
+    @Transactional
     public ResponseEntity<ApiResponse<NoteResponse>> createNote(@Valid @RequestBody NoteRequest noteRequest) {
         User currentUser = userService.getCurrentUser();
 
@@ -265,22 +341,55 @@ public class NoteController {
         }
 
         // Save note and convert to response DTO
+        note.setChangeSeq(collectionVersionService.bump(currentUser.getId()));
         Note savedNote = noteRepository.save(note);
+        if (savedNote.getFolder() != null) {
+            folderService.adjustNoteCounts(savedNote.getFolder().getId(), 1);
+        }
+        eventPublisher.publishEvent(noteChanged(savedNote, false));
         NoteResponse noteResponse = noteMapper.toNoteResponse(savedNote);
 
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success("Note created successfully", noteResponse));
     }
 
+    /**
+     * Applies several note creates, updates and deletes in one transaction
+     * @param batchRequest The operations to apply, in order
+     * @return The created, updated and deleted notes
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<NoteBatchResponse>> applyBatch(@Valid @RequestBody NoteBatchRequest batchRequest) {
+        if (batchRequest.getOperations().size() > maxBatchOperations) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Batch cannot contain more than " + maxBatchOperations + " operations"));
+        }
+
+        try {
+            NoteBatchResponse response = noteBatchService.apply(batchRequest.getOperations());
+            return ResponseEntity.ok(ApiResponse.success("Batch applied successfully", response));
+        } catch (BatchValidationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage(), e.getErrors()));
+        }
+    }
+
     /**
      * Retrieves a specific note by ID
      * @param id The ID of the note to retrieve
-     * @return The requested note if it belongs to the current user
+     * @return The requested note if it belongs to the current user, or 304 if the client's copy is current
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<NoteResponse>> getNoteById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<NoteResponse>> getNoteById(@PathVariable Long id, WebRequest webRequest) {
         try {
-            Note note = noteRepository.findById(id)
+            // Answer a matching If-None-Match from the version columns alone, before loading the note
+            Optional<NoteVersionStamp> versionStamp =
+                    noteRepository.findVersionStampByIdAndUserId(id, userService.getCurrentUserId());
+            if (versionStamp.isPresent() && webRequest.checkNotModified(versionStamp.get().toETag())) {
+                return null;
+            }
+
+            Note note = noteRepository.findWithBodyAndFolderById(id)
                     .orElseThrow(() -> new RuntimeException("Note not found"));
 
             // Security check: verify that the note belongs to the current user
@@ -303,45 +412,139 @@ public class NoteController {
      * Updates an existing note
      * @param id The ID of the note to update
      * @param noteRequest The updated note details
+     * @param ifMatch Optional version the update is conditional on
      * @return The updated note as a response DTO
      */
     @PutMapping("/{id}")
+    @Transactional
     public ResponseEntity<ApiResponse<NoteResponse>> updateNote(
             @PathVariable Long id,
-            @Valid @RequestBody NoteRequest noteRequest) {
+            @Valid @RequestBody NoteRequest noteRequest,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         try {
-            Note note = noteRepository.findById(id)
+            Note note = noteRepository.findWithBodyAndFolderById(id)
                     .orElseThrow(() -> new RuntimeException("Note not found"));
 
             // Security check
             if (!note.getUser().getId().equals(userService.getCurrentUserId())) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body(ApiResponse.error("Access denied"));
+                return failedWriteResponse(HttpStatus.FORBIDDEN, "Access denied");
             }
 
-            // Update note fields from request
-            noteMapper.updateNoteFromRequest(note, noteRequest);
-            note.setUpdatedAt(LocalDateTime.now());
+            // Conditional write: refuse if the client's copy of the note is outdated
+            Long expectedVersion = IfMatch.expectedVersion(ifMatch);
+            if (expectedVersion != null && !expectedVersion.equals(note.getVersion())) {
+                return failedWriteResponse(HttpStatus.PRECONDITION_FAILED,
+                        "Note has changed, current version is " + note.getVersion());
+            }
 
-            // Update folder if provided
+            // Resolve the target folder before touching the entity, a null folderId removes it from any folder
+            Folder targetFolder = null;
             if (noteRequest.getFolderId() != null) {
                 Optional<Folder> folder = folderService.getFolderForCurrentUser(noteRequest.getFolderId());
-                if (folder.isPresent()) {
-                    note.setFolder(folder.get());
-                } else {
-                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                            .body(ApiResponse.error("Folder not found or access denied"));
+                if (folder.isEmpty()) {
+                    return failedWriteResponse(HttpStatus.BAD_REQUEST, "Folder not found or access denied");
                 }
-            } else {
-                // If folderId is null, remove from any folder
-                note.setFolder(null);
+                targetFolder = folder.get();
             }
 
-            // Save and convert to response DTO
-            Note updatedNote = noteRepository.save(note);
+            Long previousFolderId = note.getFolder() != null ? note.getFolder().getId() : null;
+            note.setChangeSeq(collectionVersionService.bump(note.getUser().getId()));
+
+            // Update note fields from request
+            noteMapper.updateNoteFromRequest(note, noteRequest);
+            note.setUpdatedAt(LocalDateTime.now());
+            note.setFolder(targetFolder);
+
+            // Save and convert to response DTO, flushing so the response carries the new version
+            Note updatedNote = noteRepository.saveAndFlush(note);
+            if (!Objects.equals(previousFolderId, noteRequest.getFolderId())) {
+                folderService.adjustNoteCounts(previousFolderId, -1);
+                folderService.adjustNoteCounts(noteRequest.getFolderId(), 1);
+            }
+            eventPublisher.publishEvent(noteChanged(updatedNote, false));
             NoteResponse noteResponse = noteMapper.toNoteResponse(updatedNote);
 
             return ResponseEntity.ok(ApiResponse.success("Note updated successfully", noteResponse));
+        } catch (IllegalArgumentException e) {
+            return failedWriteResponse(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return concurrentWriteResponse(ifMatch);
+        } catch (RuntimeException e) {
+            return failedWriteResponse(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    /**
+     * Applies content splices and an optional title change to a note, so that clients only send what changed
+     * @param id The ID of the note to patch
+     * @param patchRequest The version the splices are based on, and the changes
+     * @param ifMatch Optional version the patch is conditional on, in addition to the base version
+     * @return The new version of the note, without its content
+     */
+    @PatchMapping("/{id}")
+    @Transactional
+    public ResponseEntity<ApiResponse<NotePatchResponse>> patchNote(
+            @PathVariable Long id,
+            @Valid @RequestBody NotePatchRequest patchRequest,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        try {
+            Note note = noteRepository.findWithBodyById(id)
+                    .orElseThrow(() -> new RuntimeException("Note not found"));
+
+            // Security check
+            if (!note.getUser().getId().equals(userService.getCurrentUserId())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(ApiResponse.error("Access denied"));
+            }
+
+            // Conditional write: refuse if the client's copy of the note is outdated
+            Long expectedVersion = IfMatch.expectedVersion(ifMatch);
+            if (expectedVersion != null && !expectedVersion.equals(note.getVersion())) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                        .body(ApiResponse.error("Note has changed, current version is " + note.getVersion()));
+            }
+
+            // Splice offsets are only meaningful against the exact content the client started from
+            if (!note.getVersion().equals(patchRequest.getBaseVersion())) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(ApiResponse.error("Note has changed since version " + patchRequest.getBaseVersion()
+                                + ", current version is " + note.getVersion()));
+            }
+
+            if (patchRequest.getTitle() != null && patchRequest.getTitle().isBlank()) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(ApiResponse.error("Title cannot be empty"));
+            }
+
+            // Validate every splice before touching the entity
+            String content = note.getContent();
+            if (!patchRequest.getSplices().isEmpty()) {
+                content = ContentSplice.applyAll(content, patchRequest.getSplices());
+            }
+            note.setChangeSeq(collectionVersionService.bump(note.getUser().getId()));
+            if (!patchRequest.getSplices().isEmpty()) {
+                note.setContent(content);
+            }
+            if (patchRequest.getTitle() != null) {
+                note.setTitle(patchRequest.getTitle());
+            }
+            note.setUpdatedAt(LocalDateTime.now());
+
+            // Flush here so a concurrent write that slipped in after the check above is reported as a conflict
+            Note patchedNote = noteRepository.saveAndFlush(note);
+            eventPublisher.publishEvent(noteChanged(patchedNote, false));
+
+            NotePatchResponse response = new NotePatchResponse();
+            response.setId(patchedNote.getId());
+            response.setVersion(patchedNote.getVersion());
+            response.setContentLength(content != null ? content.length() : 0);
+            response.setUpdatedAt(patchedNote.getUpdatedAt());
+            return ResponseEntity.ok(ApiResponse.success("Note patched successfully", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return concurrentWriteResponse(ifMatch);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(ApiResponse.error(e.getMessage()));
@@ -351,10 +554,14 @@ public class NoteController {
     /**
      * Deletes a note by ID
      * @param id The ID of the note to delete
+     * @param ifMatch Optional version the deletion is conditional on
      * @return Success message if deleted successfully
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<ApiResponse<Void>> deleteNote(@PathVariable Long id) {
+    @Transactional
+    public ResponseEntity<ApiResponse<Void>> deleteNote(
+            @PathVariable Long id,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         try {
             Note note = noteRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("Note not found"));
@@ -365,8 +572,32 @@ public class NoteController {
                         .body(ApiResponse.error("Access denied"));
             }
 
-            noteRepository.delete(note);
+            // Conditional write: refuse if the client's copy of the note is outdated
+            Long expectedVersion = IfMatch.expectedVersion(ifMatch);
+            if (expectedVersion != null && !expectedVersion.equals(note.getVersion())) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                        .body(ApiResponse.error("Note has changed, current version is " + note.getVersion()));
+            }
+
+            long changeSeq = collectionVersionService.bump(note.getUser().getId());
+            syncService.recordNoteDeletions(List.of(id), changeSeq);
+
+            // Removes the note and its body without loading the body first
+            if (expectedVersion == null) {
+                noteRepository.deleteAllByIdIn(List.of(id));
+            } else if (noteRepository.deleteByIdAndVersion(id, expectedVersion) == 0) {
+                // Updated by another request since it was read above
+                return concurrentWriteResponse(ifMatch);
+            }
+            if (note.getFolder() != null) {
+                folderService.adjustNoteCounts(note.getFolder().getId(), -1);
+            }
+            note.setChangeSeq(changeSeq);
+            eventPublisher.publishEvent(noteChanged(note, true));
             return ResponseEntity.ok(ApiResponse.success("Note deleted successfully", null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(ApiResponse.error(e.getMessage()));
@@ -376,26 +607,251 @@ public class NoteController {
     /**
      * Get all notes in a specific folder
      * @param folderId ID of the folder
-     * @return List of notes in the specified folder
+     * @param cursor Opaque cursor from a previous page's nextCursor, omitted for the first page
+     * @param size Maximum number of notes to return
+     * @return Page of notes in the specified folder
      */
     @GetMapping("/folder/{folderId}")
-    public ResponseEntity<ApiResponse<List<NoteResponse>>> getNotesByFolder(@PathVariable Long folderId) {
-        // Verify folder exists and belongs to current user
-        Optional<Folder> folderOpt = folderService.getFolderForCurrentUser(folderId);
+    public ResponseEntity<?> getNotesByFolder(
+            @PathVariable Long folderId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        Long userId = userService.getCurrentUserId();
+        long version = collectionVersionService.getCollectionVersion(userId);
+        if (webRequest.checkNotModified(CollectionVersionService.toETag(userId, version))) {
+            return null;
+        }
 
-        if (folderOpt.isEmpty()) {
+        String cacheKey = "notes/folder/" + folderId + "?cursor=" + cursor + "&size=" + size;
+        return responseCacheService.getOrLoad(userId, version, cacheKey, () -> {
+            // Verify folder exists and belongs to current user
+            Optional<Folder> folderOpt = folderService.getFolderForCurrentUser(folderId);
+
+            if (folderOpt.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("Folder not found or access denied"));
+            }
+
+            // Get notes by folder ID and user ID for additional security
+            return toPageResponse("Notes retrieved successfully", cursor, size,
+                    (after, limit) -> noteRepository.findPageByFolderIdAndUserId(
+                            folderId, userId, after.updatedAt(), after.id(), limit));
+        });
+    }
+
+    /**
+     * Get a page of content-free note summaries for the current user
+     * @param cursor Opaque cursor from a previous page's nextCursor, omitted for the first page
+     * @param size Maximum number of notes to return
+     * @return Page of note summaries for the current user
+     */
+    @GetMapping("/summaries")
+    public ResponseEntity<ApiResponse<List<NoteSummaryResponse>>> getAllNoteSummaries(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        Long userId = userService.getCurrentUserId();
+        if (webRequest.checkNotModified(collectionVersionService.getCollectionETag(userId))) {
+            return null;
+        }
+        return toPageResponse("Note summaries retrieved successfully", cursor, size,
+                (after, limit) -> noteRepository.findSummaryPageByUserId(userId, after.updatedAt(), after.id(), limit),
+                summary -> new NoteCursor(summary.getUpdatedAt(), summary.getId()));
+    }
+
+    /**
+     * Get a page of content-free summaries of notes that aren't in any folder
+     * @param cursor Opaque cursor from a previous page's nextCursor, omitted for the first page
+     * @param size Maximum number of notes to return
+     * @return Page of root level note summaries
+     */
+    @GetMapping("/summaries/root")
+    public ResponseEntity<ApiResponse<List<NoteSummaryResponse>>> getRootNoteSummaries(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        Long userId = userService.getCurrentUserId();
+        if (webRequest.checkNotModified(collectionVersionService.getCollectionETag(userId))) {
+            return null;
+        }
+        return toPageResponse("Root note summaries retrieved successfully", cursor, size,
+                (after, limit) -> noteRepository.findSummaryPageByFolderIsNullAndUserId(
+                        userId, after.updatedAt(), after.id(), limit),
+                summary -> new NoteCursor(summary.getUpdatedAt(), summary.getId()));
+    }
+
+    /**
+     * Get a page of content-free summaries of the notes in a specific folder
+     * @param folderId ID of the folder
+     * @param cursor Opaque cursor from a previous page's nextCursor, omitted for the first page
+     * @param size Maximum number of notes to return
+     * @return Page of note summaries in the specified folder
+     */
+    @GetMapping("/summaries/folder/{folderId}")
+    public ResponseEntity<ApiResponse<List<NoteSummaryResponse>>> getNoteSummariesByFolder(
+            @PathVariable Long folderId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        Long userId = userService.getCurrentUserId();
+        if (webRequest.checkNotModified(collectionVersionService.getCollectionETag(userId))) {
+            return null;
+        }
+
+        // Verify folder exists and belongs to current user
+        if (folderService.getFolderForCurrentUser(folderId).isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(ApiResponse.error("Folder not found or access denied"));
         }
 
-        // Get notes by folder ID and user ID for additional security
-        List<Note> notes = noteRepository.findByFolderIdAndUserId(folderId, userService.getCurrentUserId());
+        return toPageResponse("Note summaries retrieved successfully", cursor, size,
+                (after, limit) -> noteRepository.findSummaryPageByFolderIdAndUserId(
+                        folderId, userId, after.updatedAt(), after.id(), limit),
+                summary -> new NoteCursor(summary.getUpdatedAt(), summary.getId()));
+    }
+
+    /**
+     * Full-text search over the current user's note titles and content
+     * @param q Search query, supports "quoted phrases", +required / -excluded terms and prefix*
+     * @param folderId Optional folder to restrict results to
+     * @param page Zero-based page number
+     * @param size Maximum number of results to return
+     * @return Page of matching note summaries, best match first
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<NoteSearchResponse>> searchNotes(
+            @RequestParam String q,
+            @RequestParam(required = false) Long folderId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        if (q.isBlank() || page < 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Search query cannot be empty and page cannot be negative"));
+        }
+
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        // The index ranks the first (page + 1) * size hits, which must fit in an int
+        if (((long) page + 1) * pageSize > Integer.MAX_VALUE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Page is too large"));
+        }
+        Long userId = userService.getCurrentUserId();
 
-        // Convert to DTOs
-        List<NoteResponse> noteResponses = notes.stream()
-                .map(noteMapper::toNoteResponse)
-                .collect(Collectors.toList());
+        NoteSearchService.SearchHits hits;
+        try {
+            hits = noteSearchService.search(userId, q, folderId, page, pageSize);
+        } catch (IOException e) {
+            // The message carries index file paths, those stay in the server log
+            logger.error("Search for user {} failed", userId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Search failed"));
+        }
+
+        // Load the summaries in one query, then restore the index's rank order
+        Map<Long, NoteSummaryResponse> summaries = new HashMap<>();
+        if (!hits.noteIds().isEmpty()) {
+            for (NoteSummaryResponse summary : noteRepository.findSummariesByIdInAndUserId(hits.noteIds(), userId)) {
+                summaries.put(summary.getId(), summary);
+            }
+        }
+
+        NoteSearchResponse response = new NoteSearchResponse();
+        response.setTotalHits(hits.totalHits());
+        response.setPage(page);
+        response.setSize(pageSize);
+        for (Long noteId : hits.noteIds()) {
+            NoteSummaryResponse summary = summaries.get(noteId);
+            if (summary != null) {
+                response.getResults().add(summary);
+            }
+        }
+
+        return ResponseEntity.ok(ApiResponse.success("Search completed successfully", response));
+    }
+
+    /**
+     * Typeahead lookup of the current user's note titles and folder names, served from memory
+     * @param prefix Typed prefix, matched case and accent insensitively
+     * @param limit Maximum number of matches
+     * @return Matching notes and folders in alphabetical order
+     */
+    @GetMapping("/quick-open")
+    public ResponseEntity<ApiResponse<List<QuickOpenEntry>>> quickOpen(
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "20") int limit) {
+        List<QuickOpenEntry> matches = quickOpenService.findByPrefix(
+                userService.getCurrentUserId(), prefix, Math.max(1, Math.min(limit, 100)));
+        return ResponseEntity.ok(ApiResponse.success("Matches retrieved successfully", matches));
+    }
+
+    /**
+     * Rolls back a note write that lost a race with another write of the same note. Conditional
+     * requests get 412 like any other failed precondition, unconditional ones 409.
+     */
+    private <T> ResponseEntity<ApiResponse<T>> concurrentWriteResponse(String ifMatch) {
+        HttpStatus status = ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+        return failedWriteResponse(status, "Note was changed by another request, reload and retry");
+    }
+
+    /**
+     * Error response of a transactional note write, rolling back anything the write already changed
+     */
+    private <T> ResponseEntity<ApiResponse<T>> failedWriteResponse(HttpStatus status, String message) {
+        TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        return ResponseEntity.status(status).body(ApiResponse.error(message));
+    }
+
+    /**
+     * Change notification for a note write, delivered to the owner's devices once the transaction commits
+     */
+    private ChangeNotification noteChanged(Note note, boolean deleted) {
+        return new ChangeNotification(note.getUser().getId(), ChangeNotification.TYPE_NOTE, note.getId(),
+                note.getVersion(), note.getChangeSeq(), deleted);
+    }
+
+    /**
+     * Runs a keyset page query over full notes and maps the page to response DTOs
+     */
+    private ResponseEntity<ApiResponse<List<NoteResponse>>> toPageResponse(
+            String message, String cursor, Integer size, BiFunction<NoteCursor, Limit, List<Note>> pageQuery) {
+        return toPageResponse(message, cursor, size,
+                (after, limit) -> pageQuery.apply(after, limit).stream()
+                        .map(noteMapper::toNoteResponse)
+                        .collect(Collectors.toList()),
+                note -> new NoteCursor(note.getUpdatedAt(), note.getId()));
+    }
+
+    /**
+     * Runs a keyset page query and wraps the result, including the cursor for the following page
+     * @param message Success message for the response
+     * @param cursor Encoded cursor from the request, may be null
+     * @param size Requested page size, may be null
+     * @param pageQuery Query returning rows strictly after the given cursor
+     * @param cursorOf Extracts the cursor position of a row
+     * @return Page of rows, or 400 if the cursor is malformed
+     */
+    private <T> ResponseEntity<ApiResponse<List<T>>> toPageResponse(
+            String message, String cursor, Integer size,
+            BiFunction<NoteCursor, Limit, List<T>> pageQuery, Function<T, NoteCursor> cursorOf) {
+        NoteCursor after;
+        try {
+            after = NoteCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Invalid cursor"));
+        }
+
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+
+        // Fetch one extra row to find out whether another page follows
+        List<T> rows = pageQuery.apply(after, Limit.of(pageSize + 1));
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = cursorOf.apply(rows.get(pageSize - 1)).encode();
+        }
 
-        return ResponseEntity.ok(ApiResponse.success("Notes retrieved successfully", noteResponses));
+        return ResponseEntity.ok(ApiResponse.success(message, rows, nextCursor));
     }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.notesapp.notes_app.controller;
+
+import com.notesapp.notes_app.service.ChangeNotificationService;
+import com.notesapp.notes_app.service.UserService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST Controller for the server-push change stream
+ */
+@RestController
+@RequestMapping("/api/push")
+public class PushController {
+
+    @Autowired
+    private ChangeNotificationService changeNotificationService;
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * Open a Server-Sent Events stream of the current user's note and folder changes.
+     * Each "change" event carries the entity type, ID, version and change sequence; clients
+     * fetch the changed data through GET /api/sync/changes.
+     * @return The event stream, or 503 if the server has no room for another connection
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream() {
+        SseEmitter emitter = changeNotificationService.subscribe(userService.getCurrentUserId());
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok()
+                .header("Cache-Control", "no-cache")
+                // Stops nginx-style proxies from buffering the stream
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+}
@@ -0,0 +1,48 @@
+package com.notesapp.notes_app.controller;
+
+import com.notesapp.notes_app.dto.ApiResponse;
+import com.notesapp.notes_app.dto.SyncChangesResponse;
+import com.notesapp.notes_app.service.SyncService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for incremental client sync
+ */
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    @Autowired
+    private SyncService syncService;
+
+    @Value("${notes.pagination.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${notes.pagination.max-page-size:200}")
+    private int maxPageSize;
+
+    /**
+     * Get the notes and folders created, updated or deleted since the client's last sync
+     * @param since Cursor from the previous response, omitted for a first full sync
+     * @param size Maximum number of changes to return
+     * @return A page of changes and the cursor to continue from
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<SyncChangesResponse>> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        try {
+            SyncChangesResponse changes = syncService.getChanges(since, pageSize);
+            return ResponseEntity.ok(ApiResponse.success("Changes retrieved successfully", changes));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.notesapp.notes_app.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -9,6 +11,10 @@ public class ApiResponse<T> {
     private T data;
     private List<String> errors;
 
+    // Opaque cursor for the next page of a paginated listing, omitted when there are no more results
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
     // Default constructor
     public ApiResponse() {
         this.errors = new ArrayList<>();
@@ -31,6 +37,12 @@ public class ApiResponse<T> {
         return new ApiResponse<>(true, message, data);
     }
 
+    public static <T> ApiResponse<T> success(String message, T data, String nextCursor) {
+        ApiResponse<T> response = new ApiResponse<>(true, message, data);
+        response.setNextCursor(nextCursor);
+        return response;
+    }
+
     public static <T> ApiResponse<T> error(String message) {
         ApiResponse<T> response = new ApiResponse<>(false, message, null);
         response.getErrors().add(message);
@@ -76,6 +88,14 @@ public class ApiResponse<T> {
         this.errors = errors;
     }
 
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
     public void addError(String error) {
         this.errors.add(error);
     }
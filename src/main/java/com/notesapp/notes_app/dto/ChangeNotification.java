@@ -0,0 +1,14 @@
+package com.notesapp.notes_app.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Lightweight event pushed to a user's devices after a note or folder write commits.
+ * Clients fetch the changed data themselves, usually through the sync change feed.
+ */
+public record ChangeNotification(@JsonIgnore Long userId, String type, Long id, Long version, long changeSeq,
+                                 boolean deleted) {
+
+    public static final String TYPE_NOTE = "NOTE";
+    public static final String TYPE_FOLDER = "FOLDER";
+}
@@ -0,0 +1,42 @@
+package com.notesapp.notes_app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Replaces deleteLength characters at offset with insert. Offsets and lengths count UTF-16 code units,
+ * the same way JavaScript strings index text, and refer to the content as left by the previous splice.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContentSplice {
+    private int offset;
+    private int deleteLength;
+    private String insert;
+
+    /**
+     * Applies splices in order to a note's content
+     * @param content The current content, null is treated as empty
+     * @param splices Splices to apply, each relative to the result of the previous one
+     * @return The patched content
+     * @throws IllegalArgumentException if a splice falls outside the content
+     */
+    public static String applyAll(String content, List<ContentSplice> splices) {
+        StringBuilder text = new StringBuilder(content != null ? content : "");
+        for (int i = 0; i < splices.size(); i++) {
+            ContentSplice splice = splices.get(i);
+            if (splice.offset < 0 || splice.deleteLength < 0 || splice.offset > text.length()
+                    || splice.deleteLength > text.length() - splice.offset) {
+                throw new IllegalArgumentException("Splice " + i + " is outside the note content (length "
+                        + text.length() + ")");
+            }
+            text.replace(splice.offset, splice.offset + splice.deleteLength,
+                    splice.insert != null ? splice.insert : "");
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,40 @@
+package com.notesapp.notes_app.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One line of an NDJSON export: a folder, a note, or the closing summary.
+ * Folders come first, parents before their subfolders, so the file can be imported in one pass.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ExportRecord {
+    public static final String TYPE_FOLDER = "folder";
+    public static final String TYPE_NOTE = "note";
+    // Last line, lets clients tell a complete export from a truncated one
+    public static final String TYPE_END = "end";
+
+    private String type;
+    private Long id;
+
+    // Folder fields
+    private String name;
+    private Long parentFolderId;
+
+    // Note fields
+    private String title;
+    private Long folderId;
+    private String content;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Summary fields
+    private Integer folders;
+    private Integer notes;
+}
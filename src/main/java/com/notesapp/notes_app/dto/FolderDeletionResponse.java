@@ -0,0 +1,12 @@
+package com.notesapp.notes_app.dto;
+
+import lombok.Data;
+
+/**
+ * What was removed by deleting a folder subtree
+ */
+@Data
+public class FolderDeletionResponse {
+    private long deletedFolders;
+    private long deletedNotes;
+}
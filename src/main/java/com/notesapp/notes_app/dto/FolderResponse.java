@@ -1,19 +1,39 @@
 package com.notesapp.notes_app.dto;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Data
+@NoArgsConstructor
 public class FolderResponse {
     private Long id;
+    private Long version;
     private String name;
     private Long parentFolderId;
     private String parentFolderName;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private long noteCount;
+    private long subtreeNoteCount;
     private List<FolderResponse> subfolders = new ArrayList<>();
-    private List<NoteResponse> notes = new ArrayList<>();
+    private List<NoteSummaryResponse> notes = new ArrayList<>();
+
+    // Used by flat JPQL constructor queries that load many folders at once
+    public FolderResponse(Long id, Long version, String name, Long parentFolderId, String parentFolderName,
+                          LocalDateTime createdAt, LocalDateTime updatedAt,
+                          long noteCount, long subtreeNoteCount) {
+        this.id = id;
+        this.version = version;
+        this.name = name;
+        this.parentFolderId = parentFolderId;
+        this.parentFolderName = parentFolderName;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.noteCount = noteCount;
+        this.subtreeNoteCount = subtreeNoteCount;
+    }
 }
@@ -0,0 +1,46 @@
+package com.notesapp.notes_app.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of an import's NDJSON response: progress after each committed chunk,
+ * an item that could not be imported, or the final totals
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportProgress {
+    public static final String TYPE_PROGRESS = "progress";
+    public static final String TYPE_ERROR = "error";
+    public static final String TYPE_DONE = "done";
+
+    private String type;
+
+    // Error fields: the NDJSON line number or zip entry name, and what went wrong
+    private String item;
+    private String message;
+
+    // Progress and done fields, running totals
+    private Integer folders;
+    private Integer notes;
+    private Integer errors;
+
+    public static ImportProgress error(String item, String message) {
+        ImportProgress progress = new ImportProgress();
+        progress.setType(TYPE_ERROR);
+        progress.setItem(item);
+        progress.setMessage(message);
+        return progress;
+    }
+
+    public static ImportProgress totals(String type, int folders, int notes, int errors) {
+        ImportProgress progress = new ImportProgress();
+        progress.setType(type);
+        progress.setFolders(folders);
+        progress.setNotes(notes);
+        progress.setErrors(errors);
+        return progress;
+    }
+}
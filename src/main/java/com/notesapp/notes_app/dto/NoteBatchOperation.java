@@ -0,0 +1,20 @@
+package com.notesapp.notes_app.dto;
+
+import lombok.Data;
+
+/**
+ * A single create, update or delete within a batch request.
+ * Creates and updates carry the same fields as a NoteRequest, updates and deletes need the note ID.
+ */
+@Data
+public class NoteBatchOperation {
+    public enum Type {
+        CREATE, UPDATE, DELETE
+    }
+
+    private Type type;
+    private Long id;
+    private String title;
+    private String content;
+    private Long folderId;
+}
@@ -0,0 +1,15 @@
+package com.notesapp.notes_app.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for applying several note changes in one transaction
+ */
+@Data
+public class NoteBatchRequest {
+    @NotEmpty(message = "Batch must contain at least one operation")
+    private List<NoteBatchOperation> operations;
+}
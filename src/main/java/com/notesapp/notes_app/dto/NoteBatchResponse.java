@@ -0,0 +1,16 @@
+package com.notesapp.notes_app.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a batch request, created notes are listed in the order of their operations
+ */
+@Data
+public class NoteBatchResponse {
+    private List<NoteResponse> created = new ArrayList<>();
+    private List<NoteResponse> updated = new ArrayList<>();
+    private List<Long> deleted = new ArrayList<>();
+}
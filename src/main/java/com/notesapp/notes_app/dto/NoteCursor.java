@@ -0,0 +1,47 @@
+package com.notesapp.notes_app.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a note listing ordered by (updatedAt DESC, id DESC).
+ * Clients only ever see the encoded form and pass it back unchanged.
+ */
+public record NoteCursor(LocalDateTime updatedAt, Long id) {
+
+    // Sorts after every real note, so the first page uses the same query as the following ones
+    public static final NoteCursor START = new NoteCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    /**
+     * Encodes this cursor as an opaque URL-safe string
+     */
+    public String encode() {
+        String raw = updatedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor previously returned by {@link #encode()}
+     * @param cursor The encoded cursor, or null for the first page
+     * @return The decoded cursor, or {@link #START} if none was given
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static NoteCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new NoteCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.notesapp.notes_app.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental note update: content splices applied on top of the version the client last saw
+ */
+@Data
+public class NotePatchRequest {
+    @NotNull(message = "Base version is required")
+    private Long baseVersion;
+
+    // Optional new title, the title is left unchanged when null
+    private String title;
+
+    private List<ContentSplice> splices = new ArrayList<>();
+}
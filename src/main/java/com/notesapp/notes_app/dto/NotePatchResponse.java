@@ -0,0 +1,16 @@
+package com.notesapp.notes_app.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Result of a patch, without the content so the response stays as small as the request
+ */
+@Data
+public class NotePatchResponse {
+    private Long id;
+    private Long version;
+    private int contentLength;
+    private LocalDateTime updatedAt;
+}
@@ -10,6 +10,7 @@ import java.time.LocalDateTime;
 @Data
 public class NoteResponse {
     private Long id;
+    private Long version;
     private String title;
     private String content;
     private LocalDateTime createdAt;
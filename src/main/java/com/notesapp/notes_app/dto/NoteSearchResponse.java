@@ -0,0 +1,17 @@
+package com.notesapp.notes_app.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of ranked note search results
+ */
+@Data
+public class NoteSearchResponse {
+    private long totalHits;
+    private int page;
+    private int size;
+    private List<NoteSummaryResponse> results = new ArrayList<>();
+}
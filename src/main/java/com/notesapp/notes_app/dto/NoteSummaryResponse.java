@@ -0,0 +1,35 @@
+package com.notesapp.notes_app.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight Note listing entry without the full content, populated directly by a JPQL constructor query
+ */
+@Data
+@NoArgsConstructor
+public class NoteSummaryResponse {
+    private Long id;
+    private String title;
+    private String excerpt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Folder information - will be null for notes at root level
+    private Long folderId;
+    private String folderName;
+
+    public NoteSummaryResponse(Long id, String title, String excerpt, LocalDateTime createdAt,
+                               LocalDateTime updatedAt, Long folderId, String folderName) {
+        this.id = id;
+        this.title = title;
+        // Collapse line breaks and indentation so the excerpt renders on a single line
+        this.excerpt = excerpt == null ? null : excerpt.replaceAll("\\s+", " ").trim();
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.folderId = folderId;
+        this.folderName = folderName;
+    }
+}
@@ -0,0 +1,15 @@
+package com.notesapp.notes_app.dto;
+
+/**
+ * Everything a single note response depends on: the note's own version and, since the response carries
+ * the folder name, the version of its folder. Populated by a JPQL constructor query.
+ */
+public record NoteVersionStamp(Long noteId, Long noteVersion, Long folderVersion) {
+
+    /**
+     * Strong entity tag for the note response
+     */
+    public String toETag() {
+        return "\"note-" + noteId + "-" + noteVersion + "-" + (folderVersion != null ? folderVersion : 0) + "\"";
+    }
+}
@@ -0,0 +1,20 @@
+package com.notesapp.notes_app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A note or folder matched by the quick-open box
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuickOpenEntry {
+    public static final String TYPE_NOTE = "NOTE";
+    public static final String TYPE_FOLDER = "FOLDER";
+
+    private String type;
+    private Long id;
+    private String title;
+}
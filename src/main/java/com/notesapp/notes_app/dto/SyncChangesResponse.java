@@ -0,0 +1,24 @@
+package com.notesapp.notes_app.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of a user's change feed. Folder note counts are as of this response,
+ * a change in counts alone does not make a folder appear in the feed.
+ */
+@Data
+public class SyncChangesResponse {
+    private List<FolderResponse> folders = new ArrayList<>();
+    private List<NoteResponse> notes = new ArrayList<>();
+    private List<SyncDeletion> deletions = new ArrayList<>();
+
+    // Position to pass as since on the next call, present even when there are no changes
+    private String cursor;
+    private boolean hasMore;
+
+    // The cursor is older than the retained deletion history, the client must sync again from the start
+    private boolean fullResyncRequired;
+}
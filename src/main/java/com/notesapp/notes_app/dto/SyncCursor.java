@@ -0,0 +1,60 @@
+package com.notesapp.notes_app.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a user's change feed. Changes are ordered by change sequence, then by kind
+ * (folders, notes, deletions) and then by ID, so that a single write touching many rows can span pages.
+ */
+public record SyncCursor(long changeSeq, int kind, long id) {
+
+    public static final int KIND_FOLDER = 0;
+    public static final int KIND_NOTE = 1;
+    public static final int KIND_DELETION = 2;
+
+    // Sorts before every change, rows written before the feed existed have change sequence 0
+    public static final SyncCursor START = new SyncCursor(-1, KIND_FOLDER, 0);
+
+    /**
+     * Smallest ID of the given kind that sorts after this cursor within its change sequence
+     * @param otherKind One of the KIND_ constants
+     * @return Exclusive lower bound for IDs of that kind at this cursor's change sequence
+     */
+    public long idAfter(int otherKind) {
+        if (otherKind < kind) {
+            return Long.MAX_VALUE;
+        }
+        return otherKind == kind ? id : -1;
+    }
+
+    /**
+     * Encodes this cursor as an opaque URL-safe string
+     */
+    public String encode() {
+        String raw = changeSeq + "|" + kind + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor previously returned by {@link #encode()}
+     * @param cursor The encoded cursor, or null to start from the beginning
+     * @return The decoded cursor, or {@link #START} if none was given
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static SyncCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new SyncCursor(Long.parseLong(parts[0]), Integer.parseInt(parts[1]), Long.parseLong(parts[2]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
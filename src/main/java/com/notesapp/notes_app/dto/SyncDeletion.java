@@ -0,0 +1,16 @@
+package com.notesapp.notes_app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A note or folder removed since the client's cursor
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SyncDeletion {
+    private String type;
+    private Long id;
+}
@@ -0,0 +1,19 @@
+package com.notesapp.notes_app.exception;
+
+import java.util.List;
+
+/**
+ * Thrown when one or more operations of a batch are invalid, nothing in the batch is applied
+ */
+public class BatchValidationException extends RuntimeException {
+    private final List<String> errors;
+
+    public BatchValidationException(List<String> errors) {
+        super("Batch validation failed");
+        this.errors = errors;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
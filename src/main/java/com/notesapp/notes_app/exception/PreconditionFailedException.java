@@ -0,0 +1,10 @@
+package com.notesapp.notes_app.exception;
+
+/**
+ * Thrown when a conditional write's expected version no longer matches the stored entity
+ */
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
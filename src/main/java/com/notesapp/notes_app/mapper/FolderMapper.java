@@ -14,6 +14,7 @@ public class FolderMapper {
     public FolderResponse toFolderResponse(Folder folder) {
         FolderResponse response = new FolderResponse();
         response.setId(folder.getId());
+        response.setVersion(folder.getVersion());
         response.setName(folder.getName());
         response.setCreatedAt(folder.getCreatedAt());
         response.setUpdatedAt(folder.getUpdatedAt());
@@ -24,12 +25,9 @@ public class FolderMapper {
             response.setParentFolderName(folder.getParentFolder().getName());
         }
 
-//        // Count notes in folder
-//        if (folder.getNotes() != null) {
-//            response.setNoteCount(folder.getNotes().size());
-//        } else {
-//            response.setNoteCount(0);
-//        }
+        // Counts are maintained on the folder row, so this doesn't load the notes
+        response.setNoteCount(folder.getNoteCount());
+        response.setSubtreeNoteCount(folder.getSubtreeNoteCount());
 
         return response;
     }
@@ -14,6 +14,7 @@ public class NoteMapper {
     public NoteResponse toNoteResponse(Note note) {
         NoteResponse response = new NoteResponse();
         response.setId(note.getId());
+        response.setVersion(note.getVersion());
         response.setTitle(note.getTitle());
         response.setContent(note.getContent());
         response.setCreatedAt(note.getCreatedAt());
@@ -0,0 +1,87 @@
+package com.notesapp.notes_app.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Records how many SQL statements and entity loads each request needed, per endpoint.
+ * Requests over the statement budget, and requests repeating one statement often enough
+ * to suggest an N+1 pattern, are logged and counted.
+ */
+@Component
+public class RequestQueryMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestQueryMetricsFilter.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${notes.sql.request-budget:20}")
+    private int requestBudget;
+
+    @Value("${notes.sql.repeat-threshold:5}")
+    private int repeatThreshold;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestQueryStatistics statistics = RequestQueryStatistics.begin();
+        request.setAttribute(RequestQueryStatistics.REQUEST_ATTRIBUTE, statistics);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestQueryStatistics.end();
+            // Only requests that reached a handler, so the URI tag is the route template and stays low-cardinality
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                record(statistics, request, pattern.toString());
+            }
+        }
+    }
+
+    private void record(RequestQueryStatistics statistics, HttpServletRequest request, String uri) {
+        summary("jdbc.request.statements", "SQL statements executed per request", request, uri)
+                .record(statistics.getStatements());
+        summary("hibernate.request.entity.loads", "Entities loaded from the database per request", request, uri)
+                .record(statistics.getEntityLoads());
+
+        if (statistics.getStatements() > requestBudget) {
+            log.warn("{} {} executed {} SQL statements, over the budget of {}",
+                    request.getMethod(), uri, statistics.getStatements(), requestBudget);
+            meterRegistry.counter("jdbc.request.budget.exceeded", "method", request.getMethod(), "uri", uri)
+                    .increment();
+        }
+        Map.Entry<String, Integer> mostRepeated = statistics.getMostRepeatedStatement();
+        if (mostRepeated != null && mostRepeated.getValue() >= repeatThreshold) {
+            log.warn("Probable N+1: {} {} executed the same statement {} times: {}",
+                    request.getMethod(), uri, mostRepeated.getValue(), mostRepeated.getKey());
+            meterRegistry.counter("jdbc.request.repeated.statements", "method", request.getMethod(), "uri", uri)
+                    .increment();
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, HttpServletRequest request, String uri) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(1000.0)
+                .register(meterRegistry);
+    }
+}
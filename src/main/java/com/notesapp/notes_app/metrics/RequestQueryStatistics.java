@@ -0,0 +1,81 @@
+package com.notesapp.notes_app.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQL statements and entity loads issued while handling the current request.
+ * Tracking is bound to the request thread between {@link #begin()} and {@link #end()};
+ * outside of that, for example in scheduled jobs, nothing is counted.
+ */
+public final class RequestQueryStatistics {
+
+    // Request attribute holding the statistics, for tests that inspect a finished MockMvc request
+    public static final String REQUEST_ATTRIBUTE = RequestQueryStatistics.class.getName();
+
+    private static final ThreadLocal<RequestQueryStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private int entityLoads;
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+
+    private RequestQueryStatistics() {
+    }
+
+    /**
+     * Start counting for the current thread
+     * @return The statistics that the following statements and loads are counted in
+     */
+    public static RequestQueryStatistics begin() {
+        RequestQueryStatistics statistics = new RequestQueryStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Stop counting for the current thread
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Get the statistics of the current request, or null if it isn't being tracked
+     */
+    public static RequestQueryStatistics current() {
+        return CURRENT.get();
+    }
+
+    void statementExecuted(String sql) {
+        statements++;
+        if (sql != null) {
+            executionsBySql.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void entityLoaded(String entityName) {
+        entityLoads++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getEntityLoads() {
+        return entityLoads;
+    }
+
+    /**
+     * Get the statement executed most often in this request, the usual sign of an N+1 pattern
+     * @return The SQL and its execution count, or null if nothing was executed
+     */
+    public Map.Entry<String, Integer> getMostRepeatedStatement() {
+        Map.Entry<String, Integer> mostRepeated = null;
+        for (Map.Entry<String, Integer> entry : executionsBySql.entrySet()) {
+            if (mostRepeated == null || entry.getValue() > mostRepeated.getValue()) {
+                mostRepeated = entry;
+            }
+        }
+        return mostRepeated;
+    }
+}
@@ -0,0 +1,70 @@
+package com.notesapp.notes_app.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Data source that counts every JDBC statement execution towards the current request's
+ * {@link RequestQueryStatistics}. A batch counts as one execution. Connections used outside
+ * a tracked request pass through with only the cost of the proxy.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    public StatementCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countingConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return countingConnection(super.getConnection(username, password));
+    }
+
+    private static Connection countingConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    return switch (method.getName()) {
+                        case "prepareStatement" -> countingStatement(result, PreparedStatement.class, (String) args[0]);
+                        case "prepareCall" -> countingStatement(result, CallableStatement.class, (String) args[0]);
+                        case "createStatement" -> countingStatement(result, Statement.class, null);
+                        default -> result;
+                    };
+                });
+    }
+
+    // sql is the prepared statement's text, plain statements pass it to each execute call instead
+    private static Object countingStatement(Object statement, Class<?> type, String sql) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                RequestQueryStatistics statistics = RequestQueryStatistics.current();
+                if (statistics != null) {
+                    boolean sqlArgument = args != null && args.length > 0 && args[0] instanceof String;
+                    statistics.statementExecuted(sqlArgument ? (String) args[0] : sql);
+                }
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
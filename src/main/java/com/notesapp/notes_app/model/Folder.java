@@ -2,6 +2,9 @@ package com.notesapp.notes_app.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -11,23 +14,51 @@ import java.util.List;
 @Table(name = "folders")
 @Data
 public class Folder {
+    // Same pooled sequence scheme as Note
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "folder_id_seq")
+    @SequenceGenerator(name = "folder_id_seq", sequenceName = "folders_id_seq", allocationSize = 50)
     private Long id;
 
+    // Incremented whenever the folder itself is updated, counter changes don't touch it
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    // Value of the owner's change sequence when the folder was last written, drives the sync change feed
+    @Column(nullable = false)
+    private long changeSeq;
+
     private String name;
 
-    @ManyToOne
+    // Associations are lazy, read paths fetch the parent with an entity graph in FolderRepository
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "parent_folder_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Folder parentFolder;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 
     @OneToMany(mappedBy = "folder", cascade = CascadeType.ALL)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<Note> notes;
 
+    // Counters are only ever changed by bulk updates in FolderRepository, never by flushing this entity
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long noteCount;
+
+    // Notes in this folder and all of its subfolders
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long subtreeNoteCount;
+
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime updatedAt = LocalDateTime.now();
 }
@@ -2,30 +2,89 @@ package com.notesapp.notes_app.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "notes")
 @Data
 public class Note {
+    // Number of leading content characters kept on the note row for list views
+    public static final int EXCERPT_LENGTH = 160;
+
+    // Pooled sequence instead of IDENTITY, so Hibernate can batch inserts (allocationSize must match the sequence increment)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "note_id_seq")
+    @SequenceGenerator(name = "note_id_seq", sequenceName = "notes_id_seq", allocationSize = 50)
     private Long id;
 
+    // Incremented on every update, patches and conditional writes are checked against it
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    // Value of the owner's change sequence when the note was last written, drives the sync change feed
+    @Column(nullable = false)
+    private long changeSeq;
+
     @Column(nullable = false)
     private String title;
 
-    @Column(columnDefinition = "TEXT")
-    private String content;
+    // The body lives in its own table and is only loaded when getContent() is called
+    @OneToOne(fetch = FetchType.LAZY, optional = false, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "content_id", nullable = false, unique = true)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private NoteContent body;
+
+    @Column(length = EXCERPT_LENGTH)
+    private String excerpt;
 
-    @ManyToOne
+    // Associations are lazy, read paths fetch what they map with an entity graph in NoteRepository
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "folder_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Folder folder;
 
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime updatedAt = LocalDateTime.now();
+
+    /**
+     * Get the full note content, loading the body if it hasn't been fetched yet
+     */
+    public String getContent() {
+        return body != null ? body.getText() : null;
+    }
+
+    /**
+     * Set the note content and refresh the stored excerpt
+     */
+    public void setContent(String content) {
+        if (body == null) {
+            body = new NoteContent();
+        }
+        body.setText(content);
+        excerpt = toExcerpt(content);
+    }
+
+    private static String toExcerpt(String content) {
+        if (content == null || content.length() <= EXCERPT_LENGTH) {
+            return content;
+        }
+        int end = EXCERPT_LENGTH;
+        // Don't cut a surrogate pair in half
+        if (Character.isHighSurrogate(content.charAt(end - 1))) {
+            end--;
+        }
+        return content.substring(0, end);
+    }
 }
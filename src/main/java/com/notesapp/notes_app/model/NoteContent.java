@@ -0,0 +1,108 @@
+package com.notesapp.notes_app.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.ToString;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Body of a note, kept apart from the notes table so that queries on note metadata never read it.
+ * Bodies above the compression threshold are stored deflated.
+ */
+@Entity
+@Table(name = "note_contents")
+@Data
+public class NoteContent {
+    // UTF-8 size from which bodies are compressed, smaller ones don't gain enough to pay for inflating
+    public static final int COMPRESSION_THRESHOLD = 4096;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "note_content_id_seq")
+    @SequenceGenerator(name = "note_content_id_seq", sequenceName = "note_contents_id_seq", allocationSize = 50)
+    private Long id;
+
+    // Declared so that generated schemas match the database instead of capping the column at 255 bytes
+    @Column(columnDefinition = "bytea")
+    @ToString.Exclude
+    private byte[] data;
+
+    @Column(nullable = false)
+    private boolean compressed;
+
+    // Size of the uncompressed UTF-8 body in bytes
+    @Column(nullable = false)
+    private int originalLength;
+
+    /**
+     * Get the note body, inflating it if it was stored compressed
+     */
+    public String getText() {
+        if (data == null) {
+            return null;
+        }
+        if (!compressed) {
+            return new String(data, StandardCharsets.UTF_8);
+        }
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            byte[] raw = new byte[originalLength];
+            int offset = 0;
+            while (offset < raw.length && !inflater.finished()) {
+                offset += inflater.inflate(raw, offset, raw.length - offset);
+            }
+            return new String(raw, 0, offset, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt content for note content " + id, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Set the note body, compressing it when it is large and compression actually saves space
+     */
+    public void setText(String text) {
+        if (text == null) {
+            data = null;
+            compressed = false;
+            originalLength = 0;
+            return;
+        }
+
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        originalLength = raw.length;
+        if (raw.length >= COMPRESSION_THRESHOLD) {
+            byte[] deflated = deflate(raw);
+            if (deflated.length < raw.length) {
+                data = deflated;
+                compressed = true;
+                return;
+            }
+        }
+        data = raw;
+        compressed = false;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+}
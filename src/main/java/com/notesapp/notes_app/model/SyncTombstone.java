@@ -0,0 +1,36 @@
+package com.notesapp.notes_app.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record of a deleted note or folder, kept for the change feed until it expires
+ */
+@Entity
+@Table(name = "sync_tombstones")
+@Data
+public class SyncTombstone {
+    public static final String TYPE_NOTE = "NOTE";
+    public static final String TYPE_FOLDER = "FOLDER";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String entityType;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    @Column(nullable = false)
+    private long changeSeq;
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -2,6 +2,7 @@ package com.notesapp.notes_app.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(name = "users")
@@ -16,4 +17,14 @@ public class User {
 
     @Column(nullable = false)
     private String password; // Will be hashed
+
+    // Bumped by every note or folder write of this user, only changed by bulk updates in UserRepository
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long collectionVersion;
+
+    // Change sequence up to which deletions have been pruned from the change feed
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long syncFloor;
 }
\ No newline at end of file
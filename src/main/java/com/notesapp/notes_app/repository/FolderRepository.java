@@ -1,16 +1,99 @@
 package com.notesapp.notes_app.repository;
 
+import com.notesapp.notes_app.dto.FolderResponse;
+import com.notesapp.notes_app.dto.QuickOpenEntry;
 import com.notesapp.notes_app.model.Folder;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface FolderRepository extends JpaRepository<Folder, Long> {
     List<Folder> findByUserIdAndParentFolderIsNull(Long userId);
+
+    // The parent is fetched in the same query because FolderMapper reads its name
+    @EntityGraph(attributePaths = "parentFolder")
     List<Folder> findByUserIdAndParentFolderId(Long userId, Long parentFolderId);
+
+    @EntityGraph(attributePaths = "parentFolder")
     Optional<Folder> findByIdAndUserId(Long id, Long userId);
+
+    List<Folder> findByIdInAndUserId(Collection<Long> ids, Long userId);
     boolean existsByNameAndUserIdAndParentFolderId(String name, Long userId, Long parentFolderId);
+
+    @Query("SELECT new com.notesapp.notes_app.dto.QuickOpenEntry('" + QuickOpenEntry.TYPE_FOLDER + "', f.id, f.name) " +
+            "FROM Folder f WHERE f.user.id = :userId ORDER BY f.updatedAt DESC")
+    List<QuickOpenEntry> findQuickOpenEntriesByUserId(Long userId, Limit limit);
+
+    // Change feed: folders written after the cursor, in change sequence order
+    @EntityGraph(attributePaths = "parentFolder")
+    @Query("SELECT f FROM Folder f WHERE f.user.id = :userId " +
+            "AND (f.changeSeq > :changeSeq OR (f.changeSeq = :changeSeq AND f.id > :afterId)) " +
+            "ORDER BY f.changeSeq, f.id")
+    List<Folder> findChanges(Long userId, long changeSeq, long afterId, Limit limit);
+
+    // The user's whole hierarchy as flat rows, the tree is assembled in memory
+    @Query("SELECT new com.notesapp.notes_app.dto.FolderResponse(f.id, f.version, f.name, p.id, p.name, f.createdAt, f.updatedAt, " +
+            "f.noteCount, f.subtreeNoteCount) " +
+            "FROM Folder f LEFT JOIN f.parentFolder p WHERE f.user.id = :userId ORDER BY f.name, f.id")
+    List<FolderResponse> findFlatTreeByUserId(Long userId);
+
+    // Walks from a folder up to the top level, UNION (not UNION ALL) stops on parent cycles
+    String ANCESTORS_CTE = "WITH RECURSIVE ancestors(id, parent_folder_id) AS (" +
+            "SELECT id, parent_folder_id FROM folders WHERE id = :folderId " +
+            "UNION SELECT f.id, f.parent_folder_id FROM folders f JOIN ancestors a ON f.id = a.parent_folder_id) ";
+
+    // The folder and all of its descendants, UNION stops on parent cycles.
+    // Subtree writes run it inside their own statement, so no ID list has to be bound.
+    String SUBTREE_CTE = "WITH RECURSIVE subtree(id) AS (" +
+            "SELECT id FROM folders WHERE id = :folderId " +
+            "UNION SELECT f.id FROM folders f JOIN subtree s ON f.parent_folder_id = s.id) ";
+
+    @Query(value = SUBTREE_CTE + "SELECT id FROM subtree", nativeQuery = true)
+    List<Long> findSubtreeIds(Long folderId);
+
+    // Locks the folder row until commit and reads its version, so that a concurrent write is either seen here or waits
+    @Query(value = "SELECT version FROM folders WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> findVersionForUpdateById(Long id);
+
+    // Removes the whole subtree in one statement, so parent/child references within it don't matter
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM folders WHERE id IN (" + SUBTREE_CTE + "SELECT id FROM subtree)", nativeQuery = true)
+    int deleteSubtree(Long folderId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Folder f SET f.noteCount = f.noteCount + :delta WHERE f.id = :folderId")
+    void addToNoteCount(Long folderId, long delta);
+
+    // Applies delta to the subtree count of the folder and every ancestor.
+    // The CTE sits in the subquery rather than before the UPDATE so that H2 (load tests) accepts it too.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE folders SET subtree_note_count = subtree_note_count + :delta " +
+            "WHERE id IN (" + ANCESTORS_CTE + "SELECT id FROM ancestors)", nativeQuery = true)
+    void addToSubtreeNoteCounts(Long folderId, long delta);
+
+    // Repair: recompute direct counts from the notes table
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE folders f SET note_count = " +
+            "(SELECT COUNT(*) FROM notes n WHERE n.folder_id = f.id)", nativeQuery = true)
+    int recomputeNoteCounts();
+
+    // Repair: recompute subtree counts as the sum of direct counts over every descendant, run after recomputeNoteCounts.
+    // The ancestor/descendant pairs are built and summed once for all folders, only drifted rows are rewritten.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "WITH RECURSIVE tree(ancestor_id, folder_id) AS (" +
+            "SELECT id, id FROM folders " +
+            "UNION SELECT t.ancestor_id, f.id FROM folders f JOIN tree t ON f.parent_folder_id = t.folder_id) " +
+            "UPDATE folders f SET subtree_note_count = s.total " +
+            "FROM (SELECT t.ancestor_id, SUM(c.note_count) AS total FROM tree t " +
+            "JOIN folders c ON c.id = t.folder_id GROUP BY t.ancestor_id) s " +
+            "WHERE f.id = s.ancestor_id AND f.subtree_note_count <> s.total", nativeQuery = true)
+    int recomputeSubtreeNoteCounts();
 }
@@ -1,10 +1,20 @@
 package com.notesapp.notes_app.repository;
 
+import com.notesapp.notes_app.dto.NoteSummaryResponse;
+import com.notesapp.notes_app.dto.NoteVersionStamp;
+import com.notesapp.notes_app.dto.QuickOpenEntry;
 import com.notesapp.notes_app.model.Note;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NoteRepository extends JpaRepository<Note, Long> {
@@ -15,4 +25,106 @@ public interface NoteRepository extends JpaRepository<Note, Long> {
 
     // Find notes that aren't in any folder (root level notes)
     List<Note> findByFolderIsNullAndUserId(Long userId);
-}
\ No newline at end of file
+
+    // Bulk deletes also remove the note bodies; every note has exactly one, so the count is the number of notes
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = FolderRepository.SUBTREE_CTE + ", deleted AS (" +
+            "DELETE FROM notes WHERE folder_id IN (SELECT id FROM subtree) RETURNING content_id) " +
+            "DELETE FROM note_contents WHERE id IN (SELECT content_id FROM deleted)", nativeQuery = true)
+    int deleteAllInFolderSubtree(Long folderId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "WITH deleted AS (DELETE FROM notes WHERE id IN (:ids) RETURNING content_id) " +
+            "DELETE FROM note_contents WHERE id IN (SELECT content_id FROM deleted)", nativeQuery = true)
+    int deleteAllByIdIn(Collection<Long> ids);
+
+    // Conditional single delete, removes nothing if the note was updated since the given version
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "WITH deleted AS (DELETE FROM notes WHERE id = :id AND version = :version RETURNING content_id) " +
+            "DELETE FROM note_contents WHERE id IN (SELECT content_id FROM deleted)", nativeQuery = true)
+    int deleteByIdAndVersion(Long id, Long version);
+
+    // Load notes together with their bodies and folders, for callers that read or replace the content
+    @EntityGraph(attributePaths = {"body", "folder"})
+    List<Note> findWithBodyByIdIn(Collection<Long> ids);
+
+    // A single note with everything NoteMapper reads, in one statement
+    @EntityGraph(attributePaths = {"body", "folder"})
+    Optional<Note> findWithBodyAndFolderById(Long id);
+
+    // A single note with its body, for writes that don't map the folder
+    @EntityGraph(attributePaths = "body")
+    Optional<Note> findWithBodyById(Long id);
+
+    // The notes one write transaction stamped with its change sequence, for applying it to derived indexes
+    @EntityGraph(attributePaths = "body")
+    List<Note> findByUserIdAndChangeSeq(Long userId, long changeSeq);
+
+    // Walk the whole table in ID order, used for rebuilding derived indexes
+    @EntityGraph(attributePaths = "body")
+    List<Note> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Keyset pages: newest first, strictly after the (updatedAt, id) cursor, bodies and folders fetched in the same query
+    @EntityGraph(attributePaths = {"body", "folder"})
+    @Query("SELECT n FROM Note n WHERE n.user.id = :userId " +
+            "AND (n.updatedAt < :updatedAt OR (n.updatedAt = :updatedAt AND n.id < :id)) " +
+            "ORDER BY n.updatedAt DESC, n.id DESC")
+    List<Note> findPageByUserId(Long userId, LocalDateTime updatedAt, Long id, Limit limit);
+
+    @EntityGraph(attributePaths = {"body", "folder"})
+    @Query("SELECT n FROM Note n WHERE n.user.id = :userId AND n.folder.id = :folderId " +
+            "AND (n.updatedAt < :updatedAt OR (n.updatedAt = :updatedAt AND n.id < :id)) " +
+            "ORDER BY n.updatedAt DESC, n.id DESC")
+    List<Note> findPageByFolderIdAndUserId(Long folderId, Long userId, LocalDateTime updatedAt, Long id, Limit limit);
+
+    // Root notes have no folder to fetch
+    @EntityGraph(attributePaths = "body")
+    @Query("SELECT n FROM Note n WHERE n.user.id = :userId AND n.folder IS NULL " +
+            "AND (n.updatedAt < :updatedAt OR (n.updatedAt = :updatedAt AND n.id < :id)) " +
+            "ORDER BY n.updatedAt DESC, n.id DESC")
+    List<Note> findPageByFolderIsNullAndUserId(Long userId, LocalDateTime updatedAt, Long id, Limit limit);
+
+    // Summary pages: same ordering as above, but only selects the columns a list view needs
+    String SUMMARY_SELECT = "SELECT new com.notesapp.notes_app.dto.NoteSummaryResponse(" +
+            "n.id, n.title, n.excerpt, " +
+            "n.createdAt, n.updatedAt, f.id, f.name) FROM Note n LEFT JOIN n.folder f ";
+
+    @Query(SUMMARY_SELECT + "WHERE n.user.id = :userId " +
+            "AND (n.updatedAt < :updatedAt OR (n.updatedAt = :updatedAt AND n.id < :id)) " +
+            "ORDER BY n.updatedAt DESC, n.id DESC")
+    List<NoteSummaryResponse> findSummaryPageByUserId(Long userId, LocalDateTime updatedAt, Long id, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE n.user.id = :userId AND f.id = :folderId " +
+            "AND (n.updatedAt < :updatedAt OR (n.updatedAt = :updatedAt AND n.id < :id)) " +
+            "ORDER BY n.updatedAt DESC, n.id DESC")
+    List<NoteSummaryResponse> findSummaryPageByFolderIdAndUserId(Long folderId, Long userId, LocalDateTime updatedAt,
+                                                                 Long id, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE n.user.id = :userId AND n.folder IS NULL " +
+            "AND (n.updatedAt < :updatedAt OR (n.updatedAt = :updatedAt AND n.id < :id)) " +
+            "ORDER BY n.updatedAt DESC, n.id DESC")
+    List<NoteSummaryResponse> findSummaryPageByFolderIsNullAndUserId(Long userId, LocalDateTime updatedAt, Long id,
+                                                                     Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE n.user.id = :userId AND n.folder IS NOT NULL ORDER BY n.title, n.id")
+    List<NoteSummaryResponse> findFolderedSummariesByUserId(Long userId);
+
+    @Query(SUMMARY_SELECT + "WHERE n.id IN :ids AND n.user.id = :userId")
+    List<NoteSummaryResponse> findSummariesByIdInAndUserId(Collection<Long> ids, Long userId);
+
+    // Change feed: notes written after the cursor, in change sequence order
+    @EntityGraph(attributePaths = {"body", "folder"})
+    @Query("SELECT n FROM Note n WHERE n.user.id = :userId " +
+            "AND (n.changeSeq > :changeSeq OR (n.changeSeq = :changeSeq AND n.id > :afterId)) " +
+            "ORDER BY n.changeSeq, n.id")
+    List<Note> findChanges(Long userId, long changeSeq, long afterId, Limit limit);
+
+    // Versions a single note's entity tag is derived from, without loading the note
+    @Query("SELECT new com.notesapp.notes_app.dto.NoteVersionStamp(n.id, n.version, f.version) " +
+            "FROM Note n LEFT JOIN n.folder f WHERE n.id = :id AND n.user.id = :userId")
+    Optional<NoteVersionStamp> findVersionStampByIdAndUserId(Long id, Long userId);
+
+    @Query("SELECT new com.notesapp.notes_app.dto.QuickOpenEntry('" + QuickOpenEntry.TYPE_NOTE + "', n.id, n.title) " +
+            "FROM Note n WHERE n.user.id = :userId ORDER BY n.updatedAt DESC")
+    List<QuickOpenEntry> findQuickOpenEntriesByUserId(Long userId, Limit limit);
+}
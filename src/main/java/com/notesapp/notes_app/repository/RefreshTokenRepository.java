@@ -2,6 +2,7 @@ package com.notesapp.notes_app.repository;
 
 import com.notesapp.notes_app.model.RefreshToken;
 import com.notesapp.notes_app.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -9,6 +10,8 @@ import org.springframework.data.jpa.repository.Query;
 import java.util.Optional;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    // The user is fetched in the same query, refreshing reads its ID and username
+    @EntityGraph(attributePaths = "user")
     Optional<RefreshToken> findByToken(String token);
 
     @Modifying
@@ -0,0 +1,55 @@
+package com.notesapp.notes_app.repository;
+
+import com.notesapp.notes_app.model.SyncTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long> {
+
+    // Tombstones are written set-based from the rows about to be deleted, before the delete runs
+    @Modifying
+    @Query(value = "INSERT INTO sync_tombstones (user_id, entity_type, entity_id, change_seq, deleted_at) " +
+            "SELECT user_id, 'NOTE', id, :changeSeq, now() FROM notes WHERE id IN (:noteIds)", nativeQuery = true)
+    int insertForNotes(Collection<Long> noteIds, long changeSeq);
+
+    @Modifying
+    @Query(value = "INSERT INTO sync_tombstones (user_id, entity_type, entity_id, change_seq, deleted_at) " +
+            FolderRepository.SUBTREE_CTE +
+            "SELECT user_id, 'NOTE', id, :changeSeq, now() FROM notes WHERE folder_id IN (SELECT id FROM subtree)",
+            nativeQuery = true)
+    int insertForNotesInFolderSubtree(Long folderId, long changeSeq);
+
+    @Modifying
+    @Query(value = "INSERT INTO sync_tombstones (user_id, entity_type, entity_id, change_seq, deleted_at) " +
+            FolderRepository.SUBTREE_CTE +
+            "SELECT user_id, 'FOLDER', id, :changeSeq, now() FROM folders WHERE id IN (SELECT id FROM subtree)",
+            nativeQuery = true)
+    int insertForFolderSubtree(Long folderId, long changeSeq);
+
+    @Query("SELECT t FROM SyncTombstone t WHERE t.userId = :userId " +
+            "AND (t.changeSeq > :changeSeq OR (t.changeSeq = :changeSeq AND t.id > :afterId)) " +
+            "ORDER BY t.changeSeq, t.id")
+    List<SyncTombstone> findChanges(Long userId, long changeSeq, long afterId, Limit limit);
+
+    // Entities removed by one write transaction, which stamped its change sequence on their tombstones
+    @Query("SELECT t.entityId FROM SyncTombstone t " +
+            "WHERE t.userId = :userId AND t.entityType = :entityType AND t.changeSeq = :changeSeq")
+    List<Long> findEntityIds(Long userId, String entityType, long changeSeq);
+
+    // Drop expired tombstones and remember, per user, the newest change that can no longer be replayed
+    @Modifying
+    @Query(value = "WITH pruned AS (DELETE FROM sync_tombstones WHERE deleted_at < :cutoff " +
+            "RETURNING user_id, change_seq) " +
+            "UPDATE users u SET sync_floor = GREATEST(u.sync_floor, p.max_seq) " +
+            "FROM (SELECT user_id, MAX(change_seq) AS max_seq FROM pruned GROUP BY user_id) p " +
+            "WHERE u.id = p.user_id", nativeQuery = true)
+    int pruneOlderThan(LocalDateTime cutoff);
+}
@@ -2,8 +2,25 @@ package com.notesapp.notes_app.repository;
 
 import com.notesapp.notes_app.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
-}
\ No newline at end of file
+
+    @Query("SELECT u.collectionVersion FROM User u WHERE u.id = :userId")
+    Optional<Long> findCollectionVersionById(Long userId);
+
+    @Query("SELECT u.syncFloor FROM User u WHERE u.id = :userId")
+    Optional<Long> findSyncFloorById(Long userId);
+
+    @Modifying
+    @Query("UPDATE User u SET u.collectionVersion = u.collectionVersion + 1 WHERE u.id = :userId")
+    int incrementCollectionVersion(Long userId);
+
+    @Modifying
+    @Query("UPDATE User u SET u.collectionVersion = u.collectionVersion + 1")
+    int incrementAllCollectionVersions();
+}
@@ -1,5 +1,6 @@
 package com.notesapp.notes_app.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,12 +8,14 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 
 //JwtRequestFilter intercepts each request - Extracts and validates the token
@@ -20,6 +23,8 @@ import java.io.IOException;
 @Component
 public class JwtRequestFilter extends OncePerRequestFilter {
 
+    private static final String PUSH_STREAM_PATH = "/api/push/stream";
+
     @Autowired
     private JwtUtil jwtUtil;
 
@@ -30,22 +35,28 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
         String authHeader = request.getHeader("Authorization");
-        String username = null;
         String jwt = null;
-
-        // Extract JWT from the Authorization header if it exists and starts with "Bearer "
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);             // Remove "Bearer " prefix
-            username = jwtUtil.extractUsername(jwt);   // Extract username from token
+            jwt = authHeader.substring(7);   // Remove "Bearer " prefix
+        } else if (PUSH_STREAM_PATH.equals(request.getRequestURI())) {
+            // Browsers' EventSource can't set headers, so the push stream also takes the token as a query parameter
+            jwt = request.getParameter("token");
         }
 
-        // If we found a username and no authentication exists in the context yet
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            // Load user details from the database
-            var userDetails = userDetailsService.loadUserByUsername(username);
+        // Authenticate from the JWT if there is one and no authentication exists in the context yet
+        if (jwt != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+
+            // Verify the token once and read its claims
+            Optional<Claims> claims = jwtUtil.validateAndGetClaims(jwt);
+            if (claims.isPresent()) {
+                String username = claims.get().getSubject();
+
+                // Build the principal from the verified claims, only tokens without a user ID need the database
+                Long userId = claims.get().get(JwtUtil.USER_ID_CLAIM, Long.class);
+                UserDetails userDetails = userId != null
+                        ? AuthenticatedUser.fromToken(userId, username)
+                        : userDetailsService.loadUserByUsername(username);
 
-            // Validate the token
-            if (jwtUtil.validateToken(jwt)) {
                 // Create authentication token with user details and authorities
                 var authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
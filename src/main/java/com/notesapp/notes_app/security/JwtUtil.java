@@ -2,14 +2,25 @@ package com.notesapp.notes_app.security;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
-import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
-import java.security.Key;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 public class JwtUtil {
@@ -18,16 +29,46 @@ public class JwtUtil {
     private final SecretKey key = Jwts.SIG.HS512.key().build();
     private final long accessTokenExpiration = 1000 * 60 * 60 * 4;  // token expires in 4 hours
 
-    public String generateToken(String username) {
-        // Create a new JWT with the username as the subject
-        // Set when it was issued and when it will expire (1 hour from now)
+    // Claim holding the user's database ID, so requests can be authenticated without a user lookup
+    static final String USER_ID_CLAIM = "uid";
+
+    // Built once, parsers are immutable and thread-safe
+    private final JwtParser parser = Jwts.parser()
+            .verifyWith(key)             // Verify using the same secret key
+            .build();
+
+    // Claims of tokens that already passed verification, keyed by token digest and dropped at token expiry
+    private record VerifiedToken(Claims claims, long expiresAtMillis) {
+    }
+
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    // A full cache is swept inline at most once per interval, the scheduled sweep does the rest
+    private static final long INLINE_SWEEP_INTERVAL_MILLIS = 1000;
+    private final AtomicLong lastInlineSweepMillis = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
+    @Value("${jwt.verified-cache.max-size:100000}")
+    private int maxCachedTokens;
+
+    // Signing and verification timings, on the global registry that Spring Boot adds the application's registry to
+    private final Timer generateTimer = Timer.builder("jwt.generate")
+            .description("Time to build and sign an access token")
+            .register(Metrics.globalRegistry);
+    private final Timer verifyValidTimer = verifyTimer("valid");
+    private final Timer verifyInvalidTimer = verifyTimer("invalid");
+
+    public String generateToken(Long userId, String username) {
+        // Create a new JWT with the username as the subject and the user ID as a claim
+        // Set when it was issued and when it will expire (4 hours from now)
         // Sign it with the secret key
-        return Jwts.builder()
+        return generateTimer.record(() -> Jwts.builder()
                 .subject(username)           // Sets the subject claim to the username
+                .claim(USER_ID_CLAIM, userId) // Lets the request filter skip the user lookup
                 .issuedAt(new Date())        // Sets the issued-at timestamp to now
                 .expiration(new Date(System.currentTimeMillis() + accessTokenExpiration)) // Sets expiry time
                 .signWith(key)               // Signs the JWT with our secret key
-                .compact();                  // Builds the final compact JWT string
+                .compact());                 // Builds the final compact JWT string
     }
 
 
@@ -36,25 +77,113 @@ public class JwtUtil {
     }
 
     public boolean validateToken(String token) {
+        return validateAndGetClaims(token).isPresent();
+    }
+
+    /**
+     * Verifies the token's signature and expiry in a single parse.
+     * Tokens verified before are answered from the cache without any cryptography.
+     * @param token The compact JWT
+     * @return The token's claims, or empty if the token is invalid or expired
+     */
+    public Optional<Claims> validateAndGetClaims(String token) {
+        long now = System.currentTimeMillis();
+        String cacheKey = digest(token);
+
+        VerifiedToken cached = verifiedTokens.get(cacheKey);
+        if (cached != null) {
+            if (cached.expiresAtMillis() > now) {
+                cacheHits.incrementAndGet();
+                return Optional.of(cached.claims());
+            }
+            verifiedTokens.remove(cacheKey, cached);
+        }
+        cacheMisses.incrementAndGet();
+
+        Claims claims;
+        long started = System.nanoTime();
         try {
-            Claims claims = getClaims(token);
-            // Check if the token has expired
-            return !claims.getExpiration().before(new Date());
+            claims = getClaims(token);
         } catch (JwtException | IllegalArgumentException e) {
             // If parsing fails or there's any other exception, token is invalid
-            return false;
+            verifyInvalidTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return Optional.empty();
+        }
+        verifyValidTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+        // Check if the token has expired
+        Date expiration = claims.getExpiration();
+        if (expiration == null || expiration.getTime() <= now) {
+            return Optional.empty();
+        }
+
+        long lastSweep = lastInlineSweepMillis.get();
+        if (verifiedTokens.size() >= maxCachedTokens && now - lastSweep >= INLINE_SWEEP_INTERVAL_MILLIS
+                && lastInlineSweepMillis.compareAndSet(lastSweep, now)) {
+            // A full scan, so only one request per interval pays for it even if it frees nothing
+            evictExpiredTokens();
+        }
+        // Still full: skip caching rather than grow past the bound
+        if (verifiedTokens.size() < maxCachedTokens) {
+            verifiedTokens.put(cacheKey, new VerifiedToken(claims, expiration.getTime()));
         }
+        return Optional.of(claims);
+    }
+
+    /**
+     * Drops cached tokens that have passed their expiry
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpiredTokens() {
+        long now = System.currentTimeMillis();
+        verifiedTokens.values().removeIf(verified -> verified.expiresAtMillis() <= now);
+    }
+
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    public int getCacheSize() {
+        return verifiedTokens.size();
+    }
+
+    /**
+     * Share of validations answered from the verified-token cache
+     */
+    public double getCacheHitRate() {
+        long hits = cacheHits.get();
+        long total = hits + cacheMisses.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    private static Timer verifyTimer(String outcome) {
+        return Timer.builder("jwt.verify")
+                .description("Time to parse a token and verify its signature, cache hits excluded")
+                .tag("outcome", outcome)
+                .register(Metrics.globalRegistry);
     }
 
     private Claims getClaims(String token) {
         // Parse the JWT, verify it with our key, and extract the claims
-        return Jwts.parser()
-                .verifyWith(key)             // Verify using the same secret key
-                .build()
+        return parser
                 .parseSignedClaims(token)    // Parse and validate the token
                 .getPayload();               // Get the payload (claims)
     }
 
+    // SHA-256 of the token, so the cache never holds usable bearer tokens
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
 }
 
 //JwtUtil handles token operations
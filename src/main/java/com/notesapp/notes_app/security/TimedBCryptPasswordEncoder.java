@@ -0,0 +1,33 @@
+package com.notesapp.notes_app.security;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt encoder that records how long hashing takes, for registration (encode) and login (matches).
+ * BCrypt is deliberately slow, so these timings are what login and register capacity is sized on.
+ */
+public class TimedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private final Timer encodeTimer = hashTimer("encode");
+    private final Timer matchesTimer = hashTimer("matches");
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> super.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Boolean matches = matchesTimer.record(() -> super.matches(rawPassword, encodedPassword));
+        return Boolean.TRUE.equals(matches);
+    }
+
+    private static Timer hashTimer(String operation) {
+        return Timer.builder("security.password.hash")
+                .description("Time spent hashing passwords with BCrypt")
+                .tag("operation", operation)
+                .register(Metrics.globalRegistry);
+    }
+}
@@ -0,0 +1,225 @@
+package com.notesapp.notes_app.service;
+
+import com.notesapp.notes_app.dto.ChangeNotification;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes change notifications to connected clients over Server-Sent Events.
+ * Idle connections hold no thread, only their emitter and a small bounded queue. Writes to a client are
+ * made on a virtual thread of its own, never by the committing request, so a stalled client only holds up
+ * itself. A client that falls behind by more than the queue capacity, or whose write has been blocked for
+ * longer than the write timeout, is disconnected, to catch up through the sync change feed when it reconnects.
+ */
+@Service
+public class ChangeNotificationService {
+
+    @Value("${notes.push.max-connections:50000}")
+    private int maxConnections;
+
+    @Value("${notes.push.max-connections-per-user:10}")
+    private int maxConnectionsPerUser;
+
+    @Value("${notes.push.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${notes.push.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Value("${notes.push.write-timeout-ms:10000}")
+    private long writeTimeoutMillis;
+
+    // A blocked servlet write parks only the virtual thread of the client it is for
+    private final ExecutorService sender = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("change-push-", 0).factory());
+    private final Map<Long, Set<Subscriber>> subscribersByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final AtomicLong droppedConnections = new AtomicLong();
+
+    // One open stream, with the events not yet written to it
+    private final class Subscriber {
+        final Long userId;
+        final SseEmitter emitter = createEmitter(timeoutMillis);
+        final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(queueCapacity);
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+        // System.nanoTime() when the write in progress started, 0 while no write is in progress
+        volatile long writeStartedNanos;
+
+        Subscriber(Long userId) {
+            this.userId = userId;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event) || isWriteStalled()) {
+                // Too slow to keep up, dropping it bounds memory and lets it resync on reconnect
+                drop();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        boolean isWriteStalled() {
+            long started = writeStartedNanos;
+            return started != 0 && System.nanoTime() - started > TimeUnit.MILLISECONDS.toNanos(writeTimeoutMillis);
+        }
+
+        void drop() {
+            if (!remove(this)) {
+                return;
+            }
+            droppedConnections.incrementAndGet();
+            // Completing waits for the emitter's write lock, which a stalled write holds, so never on the caller
+            sender.execute(emitter::complete);
+        }
+
+        void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed.get() && (event = queue.poll()) != null) {
+                    writeStartedNanos = System.nanoTime();
+                    emitter.send(event);
+                    writeStartedNanos = 0;
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away, the container reports it to the emitter's callbacks as well
+                remove(this);
+            } finally {
+                writeStartedNanos = 0;
+                draining.set(false);
+            }
+            // An event may have been queued after the last poll but before draining was cleared
+            if (!queue.isEmpty() && !closed.get()) {
+                scheduleDrain();
+            }
+        }
+    }
+
+    /**
+     * Open a change stream for a user
+     * @param userId ID of the authenticated user
+     * @return The emitter to return from the controller, or null if the connection limits are reached
+     */
+    public SseEmitter subscribe(Long userId) {
+        if (connectionCount.incrementAndGet() > maxConnections) {
+            connectionCount.decrementAndGet();
+            return null;
+        }
+
+        Subscriber subscriber = new Subscriber(userId);
+        Set<Subscriber> subscribers = subscribersByUser.compute(userId, (id, existing) -> {
+            Set<Subscriber> set = existing != null ? existing : ConcurrentHashMap.newKeySet();
+            if (set.size() < maxConnectionsPerUser) {
+                set.add(subscriber);
+            }
+            return set;
+        });
+        if (!subscribers.contains(subscriber)) {
+            connectionCount.decrementAndGet();
+            return null;
+        }
+
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(e -> remove(subscriber));
+
+        // Flushes the response headers right away, so the client knows the stream is open
+        subscriber.enqueue(SseEmitter.event().comment("connected"));
+        return subscriber.emitter;
+    }
+
+    /**
+     * Fan a committed change out to the user's open streams. Only queues the event, so it never
+     * blocks the thread that committed the write.
+     * @param notification The change, published by a write path inside its transaction
+     */
+    @TransactionalEventListener
+    public void onChange(ChangeNotification notification) {
+        Set<Subscriber> subscribers = subscribersByUser.get(notification.userId());
+        if (subscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueue(SseEmitter.event()
+                    .name("change")
+                    .id(Long.toString(notification.changeSeq()))
+                    .data(notification, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    /**
+     * Send a comment line on every stream, which keeps proxies from closing idle connections
+     * and surfaces clients that disconnected without notice or whose writes have stalled
+     */
+    @Scheduled(fixedDelayString = "${notes.push.heartbeat-interval-ms:25000}")
+    public void sendHeartbeats() {
+        for (Set<Subscriber> subscribers : subscribersByUser.values()) {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.enqueue(SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    public long getDroppedConnections() {
+        return droppedConnections.get();
+    }
+
+    @PreDestroy
+    public void close() {
+        sender.shutdownNow();
+        subscribersByUser.values().forEach(subscribers -> subscribers.forEach(s -> s.emitter.complete()));
+    }
+
+    /**
+     * Emitter for a new stream, overridden in tests
+     */
+    SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    /**
+     * @return false if the subscriber was already removed
+     */
+    private boolean remove(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return false;
+        }
+        connectionCount.decrementAndGet();
+        subscribersByUser.computeIfPresent(subscriber.userId, (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        return true;
+    }
+}
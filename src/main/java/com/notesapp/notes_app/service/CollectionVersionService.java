@@ -0,0 +1,63 @@
+package com.notesapp.notes_app.service;
+
+import com.notesapp.notes_app.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Per-user version of the note and folder collections, used as the entity tag of every listing
+ * and as the change sequence of the sync feed. Stored on the users row so that all nodes agree on it,
+ * and bumped inside each write transaction. The row lock taken by the bump is held until commit,
+ * so a user's change sequence numbers are handed out in commit order.
+ */
+@Service
+public class CollectionVersionService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Get the entity tag of the user's listings, a single indexed lookup that loads no entities
+     * @param userId ID of the user
+     * @return Strong entity tag, changes whenever any of the user's notes or folders change
+     */
+    public String getCollectionETag(Long userId) {
+        return toETag(userId, getCollectionVersion(userId));
+    }
+
+    /**
+     * Get the current version of the user's notes and folders
+     * @param userId ID of the user
+     * @return The version, 0 if the user has never written anything
+     */
+    public long getCollectionVersion(Long userId) {
+        return userRepository.findCollectionVersionById(userId).orElse(0L);
+    }
+
+    /**
+     * Entity tag of the user's listings at the given collection version
+     */
+    public static String toETag(Long userId, long version) {
+        return "\"user-" + userId + "-" + version + "\"";
+    }
+
+    /**
+     * Mark every listing of the user as changed, in the caller's transaction
+     * @param userId ID of the user whose notes or folders were written
+     * @return The new version, to be stamped as change sequence on every row the transaction writes
+     */
+    @Transactional
+    public long bump(Long userId) {
+        userRepository.incrementCollectionVersion(userId);
+        return userRepository.findCollectionVersionById(userId).orElseThrow();
+    }
+
+    /**
+     * Mark every user's listings as changed, used after repairs that rewrite data behind the write paths
+     */
+    @Transactional
+    public void bumpAll() {
+        userRepository.incrementAllCollectionVersions();
+    }
+}
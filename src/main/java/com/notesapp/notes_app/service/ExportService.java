@@ -0,0 +1,314 @@
+package com.notesapp.notes_app.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notesapp.notes_app.dto.ExportRecord;
+import com.notesapp.notes_app.model.NoteContent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams a user's whole library as NDJSON or as a zip of Markdown files.
+ * Notes are read through a forward-only cursor with a bounded fetch size and written out as they
+ * arrive, so memory use doesn't grow with the number or size of notes; only the folder list is
+ * held, to order folders and build paths. Each export holds one database connection while it
+ * runs, the number of concurrent exports is capped.
+ */
+@Service
+public class ExportService {
+
+    // Longest file or directory name written to a zip, before the extension
+    private static final int MAX_FILE_NAME_LENGTH = 100;
+
+    private static final String FOLDER_SELECT = "SELECT id, name, parent_folder_id, created_at, updated_at " +
+            "FROM folders WHERE user_id = ? ORDER BY id";
+
+    // Grouped by folder so zip file names only need to be unique within the current folder
+    private static final String NOTE_SELECT = "SELECT n.id, n.title, n.folder_id, n.created_at, n.updated_at, " +
+            "c.data, c.compressed, c.original_length " +
+            "FROM notes n JOIN note_contents c ON c.id = n.content_id " +
+            "WHERE n.user_id = ? ORDER BY n.folder_id NULLS FIRST, n.id";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${notes.export.fetch-size:200}")
+    private int fetchSize;
+
+    private final Semaphore exportPermits;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    public ExportService(@Value("${notes.export.max-concurrent:4}") int maxConcurrentExports) {
+        this.exportPermits = new Semaphore(maxConcurrentExports);
+    }
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+        // PostgreSQL only streams result sets inside a transaction, otherwise it reads them whole
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Reserve one of the concurrent export slots, to be given back with {@link #release()}
+     * @return false if the server is already running the maximum number of exports
+     */
+    public boolean tryAcquire() {
+        return exportPermits.tryAcquire();
+    }
+
+    public void release() {
+        exportPermits.release();
+    }
+
+    /**
+     * Write the user's folders, then notes, one JSON object per line, followed by an end line with the counts
+     * @param userId Owner of the library
+     * @param out Stream to write to, left open
+     */
+    public void writeNdjson(Long userId, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+        inReadOnlyTransaction(() -> {
+            List<ExportRecord> folders = orderParentsFirst(loadFolders(userId));
+            for (ExportRecord folder : folders) {
+                writeLine(generator, folder);
+            }
+            // Send the folders right away, notes follow as the cursor delivers them
+            generator.flush();
+
+            int[] notes = {0};
+            jdbcTemplate.query(NOTE_SELECT, (ResultSet rs) -> {
+                writeLine(generator, toNote(rs));
+                notes[0]++;
+            }, userId);
+
+            ExportRecord end = new ExportRecord();
+            end.setType(ExportRecord.TYPE_END);
+            end.setFolders(folders.size());
+            end.setNotes(notes[0]);
+            writeLine(generator, end);
+            generator.flush();
+        });
+    }
+
+    /**
+     * Write a zip with one Markdown file per note, in directories mirroring the folder hierarchy.
+     * Empty folders are kept as directory entries, file names are the note titles made unique per directory.
+     * @param userId Owner of the library
+     * @param out Stream to write to, left open
+     */
+    public void writeMarkdownZip(Long userId, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        inReadOnlyTransaction(() -> {
+            Map<Long, String> paths = folderPaths(loadFolders(userId));
+            for (String path : paths.values()) {
+                zip.putNextEntry(new ZipEntry(path));
+                zip.closeEntry();
+            }
+            zip.flush();
+            writeNoteFiles(userId, zip, paths);
+        });
+        zip.finish();
+    }
+
+    private void writeNoteFiles(Long userId, ZipOutputStream zip, Map<Long, String> paths) {
+        Set<String> usedNames = new HashSet<>();
+        Long[] currentFolder = {null};
+        jdbcTemplate.query(NOTE_SELECT, (ResultSet rs) -> {
+            ExportRecord note = toNote(rs);
+            if (!Objects.equals(note.getFolderId(), currentFolder[0])) {
+                currentFolder[0] = note.getFolderId();
+                usedNames.clear();
+            }
+            String directory = note.getFolderId() != null ? paths.getOrDefault(note.getFolderId(), "") : "";
+            String name = toFileName(note.getTitle());
+            String unique = name;
+            for (int n = 2; !usedNames.add(unique.toLowerCase(Locale.ROOT)); n++) {
+                unique = name + " (" + n + ")";
+            }
+
+            try {
+                ZipEntry entry = new ZipEntry(directory + unique + ".md");
+                if (note.getUpdatedAt() != null) {
+                    entry.setTimeLocal(note.getUpdatedAt());
+                }
+                zip.putNextEntry(entry);
+                if (note.getContent() != null) {
+                    zip.write(note.getContent().getBytes(StandardCharsets.UTF_8));
+                }
+                zip.closeEntry();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, userId);
+    }
+
+    /**
+     * Turn a note title or folder name into a name that is safe on common file systems
+     */
+    static String toFileName(String name) {
+        String safe = name == null ? "" : name.replaceAll("[\\\\/:*?\"<>|\\p{Cntrl}]", "_").trim();
+        // Leading dots would hide the file or climb out of the directory
+        safe = safe.replaceAll("^\\.+", "").trim();
+        if (safe.length() > MAX_FILE_NAME_LENGTH) {
+            safe = safe.substring(0, MAX_FILE_NAME_LENGTH).trim();
+        }
+        return safe.isEmpty() ? "Untitled" : safe;
+    }
+
+    private List<ExportRecord> loadFolders(Long userId) {
+        List<ExportRecord> folders = new ArrayList<>();
+        jdbcTemplate.query(FOLDER_SELECT, (ResultSet rs) -> {
+            ExportRecord folder = new ExportRecord();
+            folder.setType(ExportRecord.TYPE_FOLDER);
+            folder.setId(rs.getLong("id"));
+            folder.setName(rs.getString("name"));
+            folder.setParentFolderId(rs.getObject("parent_folder_id", Long.class));
+            folder.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+            folder.setUpdatedAt(toLocalDateTime(rs.getTimestamp("updated_at")));
+            folders.add(folder);
+        }, userId);
+        return folders;
+    }
+
+    /**
+     * Order folders breadth-first from the top level; folders caught in a parent cycle come last, as they are
+     */
+    private static List<ExportRecord> orderParentsFirst(List<ExportRecord> folders) {
+        Map<Long, List<ExportRecord>> childrenByParentId = new HashMap<>();
+        ArrayDeque<ExportRecord> queue = new ArrayDeque<>();
+        Set<Long> ids = new HashSet<>();
+        folders.forEach(folder -> ids.add(folder.getId()));
+        for (ExportRecord folder : folders) {
+            if (folder.getParentFolderId() == null || !ids.contains(folder.getParentFolderId())) {
+                queue.add(folder);
+            } else {
+                childrenByParentId.computeIfAbsent(folder.getParentFolderId(), id -> new ArrayList<>()).add(folder);
+            }
+        }
+
+        Map<Long, ExportRecord> ordered = new LinkedHashMap<>();
+        while (!queue.isEmpty()) {
+            ExportRecord folder = queue.poll();
+            if (ordered.putIfAbsent(folder.getId(), folder) == null) {
+                queue.addAll(childrenByParentId.getOrDefault(folder.getId(), List.of()));
+            }
+        }
+        folders.forEach(folder -> ordered.putIfAbsent(folder.getId(), folder));
+        return new ArrayList<>(ordered.values());
+    }
+
+    /**
+     * Zip directory of every folder, "Parent/Child/", made unique among siblings, parents first
+     */
+    private static Map<Long, String> folderPaths(List<ExportRecord> folders) {
+        Map<Long, String> paths = new LinkedHashMap<>();
+        Set<String> usedPaths = new HashSet<>();
+        for (ExportRecord folder : orderParentsFirst(folders)) {
+            // Parents are placed first; a folder in a parent cycle is placed at the top level
+            String parentPath = folder.getParentFolderId() != null
+                    ? paths.getOrDefault(folder.getParentFolderId(), "") : "";
+            String name = toFileName(folder.getName());
+            String path = parentPath + name + "/";
+            for (int n = 2; !usedPaths.add(path.toLowerCase(Locale.ROOT)); n++) {
+                path = parentPath + name + " (" + n + ")/";
+            }
+            paths.put(folder.getId(), path);
+        }
+        return paths;
+    }
+
+    private static ExportRecord toNote(ResultSet rs) throws SQLException {
+        ExportRecord note = new ExportRecord();
+        note.setType(ExportRecord.TYPE_NOTE);
+        note.setId(rs.getLong("id"));
+        note.setTitle(rs.getString("title"));
+        note.setFolderId(rs.getObject("folder_id", Long.class));
+        note.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        note.setUpdatedAt(toLocalDateTime(rs.getTimestamp("updated_at")));
+
+        // Decoded the same way as the entity, without going through the persistence context
+        NoteContent content = new NoteContent();
+        content.setData(rs.getBytes("data"));
+        content.setCompressed(rs.getBoolean("compressed"));
+        content.setOriginalLength(rs.getInt("original_length"));
+        note.setContent(content.getText());
+        return note;
+    }
+
+    private static void writeLine(JsonGenerator generator, ExportRecord record) {
+        try {
+            generator.writeObject(record);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ExportWork {
+        void run() throws IOException;
+    }
+
+    /**
+     * Run the export in one read-only transaction, so it sees a single snapshot and the driver streams results.
+     * Write failures, usually a client that went away, are rethrown as the original IOException.
+     */
+    private void inReadOnlyTransaction(ExportWork work) throws IOException {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    work.run();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -1,17 +1,33 @@
 package com.notesapp.notes_app.service;
 
+import com.notesapp.notes_app.dto.ChangeNotification;
+import com.notesapp.notes_app.dto.FolderDeletionResponse;
 import com.notesapp.notes_app.dto.FolderRequest;
 import com.notesapp.notes_app.dto.FolderResponse;
+import com.notesapp.notes_app.dto.NoteSummaryResponse;
+import com.notesapp.notes_app.exception.PreconditionFailedException;
 import com.notesapp.notes_app.mapper.FolderMapper;
 import com.notesapp.notes_app.model.Folder;
 import com.notesapp.notes_app.model.User;
 import com.notesapp.notes_app.repository.FolderRepository;
+import com.notesapp.notes_app.repository.NoteRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,9 +39,29 @@ public class FolderService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private NoteRepository noteRepository;
+
     @Autowired
     public FolderMapper folderMapper;
 
+    @Autowired
+    private CollectionVersionService collectionVersionService;
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Get the entity tag shared by all of the current user's folder listings
+     * @return Strong entity tag, changes whenever any of the user's notes or folders change
+     */
+    public String getCollectionETag() {
+        return collectionVersionService.getCollectionETag(userService.getCurrentUserId());
+    }
+
     /**
      * Get all root folders for the current user
      * @return List of folders at the root level
@@ -56,6 +92,74 @@ public class FolderService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get the current user's folder hierarchy with subfolders nested, loaded with one folder query
+     * (plus one note query if notes are requested) and assembled in memory
+     * @param rootFolderId Folder to return the subtree of, or null for the whole hierarchy
+     * @param maxDepth Number of folder levels to return, or null for all levels
+     * @param includeNotes Whether to attach note summaries to each folder
+     * @return The root folder as a single element, or all top-level folders
+     */
+    public List<FolderResponse> getFolderTree(Long rootFolderId, Integer maxDepth, boolean includeNotes) {
+        Long userId = userService.getCurrentUserId();
+        List<FolderResponse> folders = folderRepository.findFlatTreeByUserId(userId);
+
+        // Index folders by ID and group them under their parents
+        Map<Long, FolderResponse> foldersById = new HashMap<>();
+        Map<Long, List<FolderResponse>> childrenByParentId = new HashMap<>();
+        List<FolderResponse> topLevel = new ArrayList<>();
+        for (FolderResponse folder : folders) {
+            foldersById.put(folder.getId(), folder);
+            if (folder.getParentFolderId() == null) {
+                topLevel.add(folder);
+            } else {
+                childrenByParentId.computeIfAbsent(folder.getParentFolderId(), id -> new ArrayList<>()).add(folder);
+            }
+        }
+
+        List<FolderResponse> roots;
+        if (rootFolderId != null) {
+            FolderResponse root = foldersById.get(rootFolderId);
+            if (root == null) {
+                throw new RuntimeException("Folder not found or access denied");
+            }
+            roots = List.of(root);
+        } else {
+            roots = topLevel;
+        }
+
+        // Attach children breadth-first, level by level, until the depth limit
+        Set<Long> visited = new HashSet<>();
+        List<FolderResponse> level = roots;
+        int depth = 1;
+        while (!level.isEmpty() && (maxDepth == null || depth < maxDepth)) {
+            List<FolderResponse> nextLevel = new ArrayList<>();
+            for (FolderResponse folder : level) {
+                visited.add(folder.getId());
+                for (FolderResponse child : childrenByParentId.getOrDefault(folder.getId(), List.of())) {
+                    // Guard against parent cycles, a folder is only placed once
+                    if (!visited.contains(child.getId())) {
+                        folder.getSubfolders().add(child);
+                        nextLevel.add(child);
+                    }
+                }
+            }
+            level = nextLevel;
+            depth++;
+        }
+        level.forEach(folder -> visited.add(folder.getId()));
+
+        if (includeNotes) {
+            for (NoteSummaryResponse note : noteRepository.findFolderedSummariesByUserId(userId)) {
+                if (visited.contains(note.getFolderId())) {
+                    foldersById.get(note.getFolderId()).getNotes().add(note);
+                }
+            }
+        }
+
+        return roots;
+    }
+
 
 
     /**
@@ -70,11 +174,25 @@ public class FolderService {
         return folderRepository.findByIdAndUserId(folderId, userService.getCurrentUserId());
     }
 
+    /**
+     * Get several folders of the current user with one query
+     * @param folderIds Folder IDs
+     * @return The folders that exist and belong to the current user, by ID
+     */
+    public Map<Long, Folder> getFoldersForCurrentUser(Collection<Long> folderIds) {
+        if (folderIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        return folderRepository.findByIdInAndUserId(folderIds, userService.getCurrentUserId()).stream()
+                .collect(Collectors.toMap(Folder::getId, folder -> folder));
+    }
+
     /**
      * Create a new folder
      * @param folderRequest Folder details
      * @return Created folder
      */
+    @Transactional
     public FolderResponse createFolder(FolderRequest folderRequest) {
         User currentUser = userService.getCurrentUser();
 
@@ -102,7 +220,9 @@ public class FolderService {
             }
         }
 
+        folder.setChangeSeq(collectionVersionService.bump(currentUser.getId()));
         Folder savedFolder = folderRepository.save(folder);
+        eventPublisher.publishEvent(folderChanged(savedFolder, false));
         return folderMapper.toFolderResponse(savedFolder);
     }
 
@@ -112,15 +232,21 @@ public class FolderService {
      * Update an existing folder
      * @param folderId Folder ID
      * @param folderRequest Updated folder details
+     * @param expectedVersion Version the client last saw, or null for an unconditional update
      * @return Updated folder
+     * @throws PreconditionFailedException if the folder's version is not the expected one
      */
-    public FolderResponse updateFolder(Long folderId, FolderRequest folderRequest) {
+    @Transactional
+    public FolderResponse updateFolder(Long folderId, FolderRequest folderRequest, Long expectedVersion) {
         Optional<Folder> folderOpt = getFolderForCurrentUser(folderId);
         if (folderOpt.isEmpty()) {
             throw new RuntimeException("Folder not found or access denied");
         }
 
         Folder folder = folderOpt.get();
+        checkVersion(folder, expectedVersion);
+        folder.setChangeSeq(collectionVersionService.bump(folder.getUser().getId()));
+        Long previousParentId = folder.getParentFolder() != null ? folder.getParentFolder().getId() : null;
 
         // Check if new name would conflict with existing folder at same level
         // Only check if name is actually changing
@@ -146,6 +272,11 @@ public class FolderService {
             if (folderRequest.getParentFolderId().equals(folderId)) {
                 throw new RuntimeException("A folder cannot be its own parent");
             }
+            // Nor moving it under one of its descendants, which would detach the subtree in a cycle
+            if (!folderRequest.getParentFolderId().equals(previousParentId)
+                    && folderRepository.findSubtreeIds(folderId).contains(folderRequest.getParentFolderId())) {
+                throw new RuntimeException("A folder cannot be moved into one of its subfolders");
+            }
 
             Optional<Folder> newParentOpt = getFolderForCurrentUser(folderRequest.getParentFolderId());
             if (newParentOpt.isEmpty()) {
@@ -158,20 +289,109 @@ public class FolderService {
             folder.setParentFolder(null);
         }
 
-        Folder savedFolder = folderRepository.save(folder);
+        // Flushed here so that the response carries the new version
+        Folder savedFolder = folderRepository.saveAndFlush(folder);
+        eventPublisher.publishEvent(folderChanged(savedFolder, false));
+
+        // Moving a folder moves its whole subtree's notes from the old ancestors to the new ones
+        Long newParentId = folder.getParentFolder() != null ? folder.getParentFolder().getId() : null;
+        if (!Objects.equals(previousParentId, newParentId)) {
+            moveSubtreeNoteCount(previousParentId, newParentId, folder.getSubtreeNoteCount());
+        }
         return folderMapper.toFolderResponse(savedFolder);
     }
 
     /**
-     * Delete a folder
+     * Delete a folder together with all of its subfolders and their notes, using a handful of
+     * set-based statements instead of loading and cascading entity by entity
      * @param folderId Folder ID
+     * @param expectedVersion Version the client last saw, or null for an unconditional delete
+     * @return Number of folders and notes removed
+     * @throws PreconditionFailedException if the folder's version is not the expected one
+     * @throws ObjectOptimisticLockingFailureException if the folder was changed by a concurrent write
      */
-    public void deleteFolder(Long folderId) {
+    @Transactional
+    public FolderDeletionResponse deleteFolder(Long folderId, Long expectedVersion) {
         Optional<Folder> folderOpt = getFolderForCurrentUser(folderId);
         if (folderOpt.isEmpty()) {
             throw new RuntimeException("Folder not found or access denied");
         }
 
-        folderRepository.delete(folderOpt.get());
+        Folder folder = folderOpt.get();
+        checkVersion(folder, expectedVersion);
+        Long userId = folder.getUser().getId();
+        Long parentId = folder.getParentFolder() != null ? folder.getParentFolder().getId() : null;
+
+        // The folder entity is left untouched, a write that slipped in since it was read is caught here instead
+        if (!folderRepository.findVersionForUpdateById(folderId).orElseThrow().equals(folder.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Folder.class, folderId);
+        }
+
+        // Descendants always belong to the same user as the folder checked above. Every statement walks
+        // the subtree itself, so its size is not limited by the number of parameters a statement can bind.
+        long changeSeq = collectionVersionService.bump(userId);
+        syncService.recordFolderSubtreeDeletion(folderId, changeSeq);
+        int deletedNotes = noteRepository.deleteAllInFolderSubtree(folderId);
+        int deletedFolders = folderRepository.deleteSubtree(folderId);
+        moveSubtreeNoteCount(parentId, null, deletedNotes);
+
+        // One event for the whole subtree, clients pick up the deleted contents from the change feed
+        eventPublisher.publishEvent(new ChangeNotification(userId, ChangeNotification.TYPE_FOLDER, folderId,
+                folder.getVersion(), changeSeq, true));
+
+        FolderDeletionResponse response = new FolderDeletionResponse();
+        response.setDeletedFolders(deletedFolders);
+        response.setDeletedNotes(deletedNotes);
+        return response;
+    }
+
+    /**
+     * Adjust the note counters of a folder and its ancestors, in the caller's transaction
+     * @param folderId Folder the notes were added to or removed from, null for root level notes
+     * @param delta Number of notes added (positive) or removed (negative)
+     */
+    @Transactional
+    public void adjustNoteCounts(Long folderId, long delta) {
+        if (folderId == null || delta == 0) {
+            return;
+        }
+        folderRepository.addToNoteCount(folderId, delta);
+        folderRepository.addToSubtreeNoteCounts(folderId, delta);
+    }
+
+    /**
+     * Recompute every folder's direct and subtree note counts from the notes table,
+     * repairing any drift in the incrementally maintained counters
+     */
+    @Transactional
+    @Scheduled(cron = "${notes.folder-counts.repair-cron:0 30 3 * * *}")
+    public void recomputeNoteCounts() {
+        folderRepository.recomputeNoteCounts();
+        folderRepository.recomputeSubtreeNoteCounts();
+        // Listings show the counts, so cached copies of them are no longer current
+        collectionVersionService.bumpAll();
+    }
+
+    private ChangeNotification folderChanged(Folder folder, boolean deleted) {
+        return new ChangeNotification(folder.getUser().getId(), ChangeNotification.TYPE_FOLDER, folder.getId(),
+                folder.getVersion(), folder.getChangeSeq(), deleted);
+    }
+
+    private void checkVersion(Folder folder, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(folder.getVersion())) {
+            throw new PreconditionFailedException("Folder has changed, current version is " + folder.getVersion());
+        }
+    }
+
+    private void moveSubtreeNoteCount(Long fromParentId, Long toParentId, long count) {
+        if (count == 0) {
+            return;
+        }
+        if (fromParentId != null) {
+            folderRepository.addToSubtreeNoteCounts(fromParentId, -count);
+        }
+        if (toParentId != null) {
+            folderRepository.addToSubtreeNoteCounts(toParentId, count);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,486 @@
+package com.notesapp.notes_app.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notesapp.notes_app.dto.ChangeNotification;
+import com.notesapp.notes_app.dto.ExportRecord;
+import com.notesapp.notes_app.dto.FolderResponse;
+import com.notesapp.notes_app.dto.ImportProgress;
+import com.notesapp.notes_app.model.Folder;
+import com.notesapp.notes_app.model.Note;
+import com.notesapp.notes_app.model.User;
+import com.notesapp.notes_app.repository.FolderRepository;
+import com.notesapp.notes_app.repository.NoteRepository;
+import com.notesapp.notes_app.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Imports a library from an NDJSON export or a zip of Markdown files, reading the upload as a stream.
+ * Folders are created as they are met, reusing existing folders with the same name and parent.
+ * Notes are collected into chunks, each inserted as JDBC batches in its own transaction, so an import
+ * holds at most one chunk in memory and a failure only loses the chunk it happened in.
+ */
+@Service
+public class ImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportService.class);
+
+    // Length of the title and name columns, longer values are cut
+    private static final int MAX_NAME_LENGTH = 255;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private FolderRepository folderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FolderService folderService;
+
+    @Autowired
+    private CollectionVersionService collectionVersionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${notes.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${notes.import.max-note-bytes:10485760}")
+    private int maxNoteBytes;
+
+    private final Semaphore importPermits;
+
+    private TransactionTemplate transactionTemplate;
+
+    public ImportService(@Value("${notes.import.max-concurrent:2}") int maxConcurrentImports) {
+        this.importPermits = new Semaphore(maxConcurrentImports);
+    }
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Receives progress after every committed chunk and every item that could not be imported
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(ImportProgress progress) throws IOException;
+    }
+
+    /**
+     * Reserve one of the concurrent import slots, to be given back with {@link #release()}
+     * @return false if the server is already running the maximum number of imports
+     */
+    public boolean tryAcquire() {
+        return importPermits.tryAcquire();
+    }
+
+    public void release() {
+        importPermits.release();
+    }
+
+    /**
+     * Import the lines of an NDJSON export. Folders must come before the folders and notes filed in them,
+     * as they do in exports; anything referring to an unknown folder is imported at the top level.
+     * @param userId Owner of the imported folders and notes
+     * @param in The upload, read once
+     * @param listener Receives progress and per-line errors
+     * @return The final totals
+     */
+    public ImportProgress importNdjson(Long userId, InputStream in, ProgressListener listener) throws IOException {
+        Import run = new Import(userId, listener);
+        Map<Long, Long> folderIds = new HashMap<>();
+        LineReader lines = new LineReader(new InputStreamReader(in, StandardCharsets.UTF_8), maxNoteBytes);
+        int lineNumber = 0;
+        for (String line = lines.next(); line != null; line = lines.next()) {
+            String item = "line " + ++lineNumber;
+            if (lines.truncated()) {
+                run.error(item, "Line is longer than " + maxNoteBytes + " characters");
+                continue;
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+
+            ExportRecord record;
+            try {
+                record = objectMapper.readValue(line, ExportRecord.class);
+            } catch (JsonProcessingException e) {
+                run.error(item, "Invalid JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            if (ExportRecord.TYPE_FOLDER.equals(record.getType())) {
+                Long parentId = resolveFolder(run, item, folderIds, record.getParentFolderId());
+                Long folderId = run.folder(item, parentId, record.getName(), record.getCreatedAt(), record.getUpdatedAt());
+                if (folderId != null && record.getId() != null) {
+                    folderIds.put(record.getId(), folderId);
+                }
+            } else if (ExportRecord.TYPE_NOTE.equals(record.getType())) {
+                Long folderId = resolveFolder(run, item, folderIds, record.getFolderId());
+                run.note(item, record.getTitle(), record.getContent(), folderId,
+                        record.getCreatedAt(), record.getUpdatedAt());
+            } else if (!ExportRecord.TYPE_END.equals(record.getType())) {
+                run.error(item, "Unknown record type " + record.getType());
+            }
+        }
+        return run.finish();
+    }
+
+    /**
+     * Import a zip of Markdown or text files, one note per file, titled after the file name and filed
+     * in folders named after its directories. Hidden files and other file types are skipped.
+     * @param userId Owner of the imported folders and notes
+     * @param in The upload, read once
+     * @param listener Receives progress and per-entry errors
+     * @return The final totals
+     */
+    public ImportProgress importMarkdownZip(Long userId, InputStream in, ProgressListener listener) throws IOException {
+        Import run = new Import(userId, listener);
+        Map<String, Long> folderIdsByPath = new HashMap<>();
+        ZipInputStream zip = new ZipInputStream(in, StandardCharsets.UTF_8);
+        for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+            String item = entry.getName();
+            // Drop empty, "." and ".." segments, the path only ever names folders of this import
+            List<String> segments = new ArrayList<>();
+            boolean hidden = false;
+            for (String segment : item.replace('\\', '/').split("/")) {
+                if (segment.isEmpty() || segment.equals(".") || segment.equals("..")) {
+                    continue;
+                }
+                hidden |= segment.startsWith(".") || segment.equals("__MACOSX");
+                segments.add(segment);
+            }
+            if (hidden || segments.isEmpty()) {
+                continue;
+            }
+
+            LocalDateTime modified = entry.getTimeLocal();
+            if (entry.isDirectory()) {
+                folderPath(run, item, folderIdsByPath, segments, segments.size(), modified);
+                continue;
+            }
+            String fileName = segments.get(segments.size() - 1);
+            int extension = fileName.lastIndexOf('.');
+            String type = extension > 0 ? fileName.substring(extension + 1).toLowerCase(Locale.ROOT) : "";
+            if (!type.equals("md") && !type.equals("markdown") && !type.equals("txt")) {
+                run.error(item, "Only Markdown and text files are imported");
+                continue;
+            }
+
+            byte[] content = zip.readNBytes(maxNoteBytes + 1);
+            if (content.length > maxNoteBytes) {
+                run.error(item, "Note is larger than " + maxNoteBytes + " bytes");
+                continue;
+            }
+            Long folderId = folderPath(run, item, folderIdsByPath, segments, segments.size() - 1, modified);
+            run.note(item, fileName.substring(0, extension), new String(content, StandardCharsets.UTF_8), folderId,
+                    modified, modified);
+        }
+        return run.finish();
+    }
+
+    private static Long resolveFolder(Import run, String item, Map<Long, Long> folderIds, Long exportedId)
+            throws IOException {
+        if (exportedId == null) {
+            return null;
+        }
+        Long folderId = folderIds.get(exportedId);
+        if (folderId == null) {
+            run.error(item, "Folder " + exportedId + " not found earlier in the file, imported at the top level");
+        }
+        return folderId;
+    }
+
+    /**
+     * Find or create the folder for the first depth segments of a zip path, creating its parents as needed
+     */
+    private static Long folderPath(Import run, String item, Map<String, Long> folderIdsByPath, List<String> segments,
+                                   int depth, LocalDateTime modified) throws IOException {
+        Long folderId = null;
+        StringBuilder path = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            path.append(segments.get(i)).append('/');
+            Long known = folderIdsByPath.get(path.toString());
+            if (known == null) {
+                known = run.folder(item, folderId, segments.get(i), modified, modified);
+                if (known == null) {
+                    return folderId;
+                }
+                folderIdsByPath.put(path.toString(), known);
+            }
+            folderId = known;
+        }
+        return folderId;
+    }
+
+    private record PendingNote(String item, String title, String content, Long folderId,
+                               LocalDateTime createdAt, LocalDateTime updatedAt) {
+    }
+
+    /**
+     * State of one running import
+     */
+    private class Import {
+        private final Long userId;
+        private final ProgressListener listener;
+        private final long started = System.nanoTime();
+
+        // Existing and created folders by parent ID and name, so re-imports merge into the same folders
+        private final Map<String, Long> folderIdsByKey = new HashMap<>();
+        private final List<PendingNote> pending = new ArrayList<>();
+        private int folders;
+        private int notes;
+        private int errors;
+
+        Import(Long userId, ProgressListener listener) {
+            this.userId = userId;
+            this.listener = listener;
+            for (FolderResponse folder : folderRepository.findFlatTreeByUserId(userId)) {
+                folderIdsByKey.putIfAbsent(folderKey(folder.getParentFolderId(), folder.getName()), folder.getId());
+            }
+        }
+
+        /**
+         * Find or create a folder, in its own transaction
+         * @return The folder's ID, or null if it could not be created
+         */
+        Long folder(String item, Long parentId, String name, LocalDateTime createdAt, LocalDateTime updatedAt)
+                throws IOException {
+            if (name == null || name.isBlank()) {
+                error(item, "Folder name cannot be empty");
+                return null;
+            }
+            String trimmed = truncate(name.trim());
+            String key = folderKey(parentId, trimmed);
+            Long existing = folderIdsByKey.get(key);
+            if (existing != null) {
+                return existing;
+            }
+
+            Folder saved;
+            try {
+                saved = transactionTemplate.execute(status -> {
+                    Folder folder = new Folder();
+                    folder.setName(trimmed);
+                    folder.setUser(userRepository.getReferenceById(userId));
+                    folder.setParentFolder(parentId != null ? folderRepository.getReferenceById(parentId) : null);
+                    setTimestamps(createdAt, updatedAt, folder::setCreatedAt, folder::setUpdatedAt);
+                    folder.setChangeSeq(collectionVersionService.bump(userId));
+                    Folder created = folderRepository.save(folder);
+                    eventPublisher.publishEvent(new ChangeNotification(userId, ChangeNotification.TYPE_FOLDER,
+                            created.getId(), created.getVersion(), created.getChangeSeq(), false));
+                    return created;
+                });
+            } catch (RuntimeException e) {
+                // The exception carries SQL and constraint details, those stay in the server log
+                logger.warn("Import of folder {} for user {} failed", item, userId, e);
+                error(item, "Folder could not be created");
+                return null;
+            }
+            folderIdsByKey.put(key, saved.getId());
+            folders++;
+            return saved.getId();
+        }
+
+        void note(String item, String title, String content, Long folderId,
+                  LocalDateTime createdAt, LocalDateTime updatedAt) throws IOException {
+            if (title == null || title.isBlank()) {
+                error(item, "Title cannot be empty");
+                return;
+            }
+            pending.add(new PendingNote(item, truncate(title.trim()), content, folderId, createdAt, updatedAt));
+            if (pending.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void error(String item, String message) throws IOException {
+            errors++;
+            listener.onProgress(ImportProgress.error(item, message));
+        }
+
+        /**
+         * Insert the pending notes in one transaction and update the folder counters once per folder
+         */
+        private void flush() throws IOException {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<PendingNote> chunk = new ArrayList<>(pending);
+            pending.clear();
+
+            List<Note> saved;
+            try {
+                saved = transactionTemplate.execute(status -> {
+                    User user = userRepository.getReferenceById(userId);
+                    long changeSeq = collectionVersionService.bump(userId);
+                    List<Note> created = new ArrayList<>(chunk.size());
+                    Map<Long, Long> folderCountDeltas = new HashMap<>();
+                    for (PendingNote pendingNote : chunk) {
+                        Note note = new Note();
+                        note.setTitle(pendingNote.title());
+                        note.setContent(pendingNote.content() != null ? pendingNote.content() : "");
+                        note.setUser(user);
+                        if (pendingNote.folderId() != null) {
+                            note.setFolder(folderRepository.getReferenceById(pendingNote.folderId()));
+                            folderCountDeltas.merge(pendingNote.folderId(), 1L, Long::sum);
+                        }
+                        setTimestamps(pendingNote.createdAt(), pendingNote.updatedAt(),
+                                note::setCreatedAt, note::setUpdatedAt);
+                        note.setChangeSeq(changeSeq);
+                        created.add(note);
+                    }
+                    noteRepository.saveAll(created);
+                    folderCountDeltas.forEach(folderService::adjustNoteCounts);
+                    noteRepository.flush();
+                    // The request's open-in-view session spans the whole import, without this every flush
+                    // would dirty check all notes imported so far
+                    entityManager.clear();
+
+                    // Devices only need to hear that there is something new to sync, not about every note,
+                    // and the search indexes pick up every note stamped with the chunk's change sequence
+                    Note last = created.get(created.size() - 1);
+                    eventPublisher.publishEvent(new ChangeNotification(userId, ChangeNotification.TYPE_NOTE,
+                            last.getId(), last.getVersion(), changeSeq, false));
+                    return created;
+                });
+            } catch (RuntimeException e) {
+                logger.warn("Import of {} notes for user {} failed", chunk.size(), userId, e);
+                for (PendingNote pendingNote : chunk) {
+                    error(pendingNote.item(), "Note could not be saved");
+                }
+                return;
+            }
+
+            notes += saved.size();
+            listener.onProgress(ImportProgress.totals(ImportProgress.TYPE_PROGRESS, folders, notes, errors));
+        }
+
+        ImportProgress finish() throws IOException {
+            flush();
+            logger.info("Imported {} folders and {} notes for user {} in {} ms, {} errors", folders, notes, userId,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), errors);
+            return ImportProgress.totals(ImportProgress.TYPE_DONE, folders, notes, errors);
+        }
+    }
+
+    private static String folderKey(Long parentId, String name) {
+        return parentId + "/" + name;
+    }
+
+    private static String truncate(String value) {
+        return value.length() > MAX_NAME_LENGTH ? value.substring(0, MAX_NAME_LENGTH) : value;
+    }
+
+    private static void setTimestamps(LocalDateTime createdAt, LocalDateTime updatedAt,
+                                      Consumer<LocalDateTime> setCreatedAt,
+                                      Consumer<LocalDateTime> setUpdatedAt) {
+        LocalDateTime now = LocalDateTime.now();
+        setCreatedAt.accept(createdAt != null ? createdAt : now);
+        setUpdatedAt.accept(updatedAt != null ? updatedAt : createdAt != null ? createdAt : now);
+    }
+
+    /**
+     * Reads lines of at most a given length without ever holding more; the rest of a longer line is skipped
+     */
+    private static final class LineReader {
+        private final Reader reader;
+        private final int maxLength;
+        private final char[] buffer = new char[8192];
+        private int position;
+        private int limit;
+        private boolean truncated;
+
+        LineReader(Reader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        /**
+         * Next line without its terminator, or null at the end of the input
+         */
+        String next() throws IOException {
+            StringBuilder line = new StringBuilder();
+            truncated = false;
+            boolean read = false;
+            while (true) {
+                if (position == limit) {
+                    limit = reader.read(buffer);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        return read ? stripCarriageReturn(line) : null;
+                    }
+                }
+                read = true;
+                int start = position;
+                while (position < limit && buffer[position] != '\n') {
+                    position++;
+                }
+                int length = Math.min(position - start, maxLength - line.length());
+                if (length < position - start) {
+                    truncated = true;
+                }
+                line.append(buffer, start, Math.max(length, 0));
+                if (position < limit) {
+                    position++;
+                    return stripCarriageReturn(line);
+                }
+            }
+        }
+
+        boolean truncated() {
+            return truncated;
+        }
+
+        private static String stripCarriageReturn(StringBuilder line) {
+            int end = line.length();
+            if (end > 0 && line.charAt(end - 1) == '\r') {
+                end--;
+            }
+            return line.substring(0, end);
+        }
+    }
+}
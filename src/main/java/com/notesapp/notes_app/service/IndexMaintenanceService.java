@@ -0,0 +1,141 @@
+package com.notesapp.notes_app.service;
+
+import com.notesapp.notes_app.dto.ChangeNotification;
+import com.notesapp.notes_app.model.Note;
+import com.notesapp.notes_app.model.SyncTombstone;
+import com.notesapp.notes_app.repository.FolderRepository;
+import com.notesapp.notes_app.repository.NoteRepository;
+import com.notesapp.notes_app.repository.SyncTombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies committed note and folder writes to the full-text search index and the quick-open titles.
+ * The write paths only publish a {@link ChangeNotification} per changed entity; the notifications of
+ * one transaction are collected and applied together once it commits, so a rolled back write never
+ * shows up in either and a batch or import chunk costs a single load and reader reopen.
+ */
+@Service
+public class IndexMaintenanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexMaintenanceService.class);
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private FolderRepository folderRepository;
+
+    @Autowired
+    private SyncTombstoneRepository syncTombstoneRepository;
+
+    @Autowired
+    private NoteSearchService noteSearchService;
+
+    @Autowired
+    private QuickOpenService quickOpenService;
+
+    // One write transaction: every row it touched is stamped with the same change sequence of its user
+    private record Write(Long userId, long changeSeq) {
+    }
+
+    // The changes published by one transaction, applied after it commits
+    private final class PendingChanges implements TransactionSynchronization {
+        final List<ChangeNotification> notifications = new ArrayList<>();
+
+        @Override
+        public void afterCommit() {
+            apply(notifications);
+        }
+    }
+
+    /**
+     * Collect a change published inside a write transaction. Outside of one it is applied right away.
+     * @param notification The change
+     */
+    @EventListener
+    public void onChange(ChangeNotification notification) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(List.of(notification));
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges pending) {
+                pending.notifications.add(notification);
+                return;
+            }
+        }
+        PendingChanges pending = new PendingChanges();
+        pending.notifications.add(notification);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+    }
+
+    private void apply(List<ChangeNotification> notifications) {
+        Set<Write> noteWrites = new LinkedHashSet<>();
+        Set<Write> folderDeletes = new LinkedHashSet<>();
+        Map<Long, List<Long>> deletedNoteIds = new HashMap<>();
+        Set<Long> writtenFolderIds = new LinkedHashSet<>();
+        for (ChangeNotification notification : notifications) {
+            Write write = new Write(notification.userId(), notification.changeSeq());
+            if (ChangeNotification.TYPE_NOTE.equals(notification.type())) {
+                if (notification.deleted()) {
+                    deletedNoteIds.computeIfAbsent(notification.userId(), userId -> new ArrayList<>())
+                            .add(notification.id());
+                } else {
+                    noteWrites.add(write);
+                }
+            } else if (notification.deleted()) {
+                folderDeletes.add(write);
+            } else {
+                writtenFolderIds.add(notification.id());
+            }
+        }
+
+        try {
+            // Notes rewritten by a later transaction carry its change sequence and are indexed by it
+            List<Note> written = new ArrayList<>();
+            for (Write write : noteWrites) {
+                written.addAll(noteRepository.findByUserIdAndChangeSeq(write.userId(), write.changeSeq()));
+            }
+            for (Note note : written) {
+                quickOpenService.putNote(note.getUser().getId(), note.getId(), note.getTitle());
+            }
+            for (Long folderId : writtenFolderIds) {
+                folderRepository.findById(folderId).ifPresent(folder ->
+                        quickOpenService.putFolder(folder.getUser().getId(), folder.getId(), folder.getName()));
+            }
+            deletedNoteIds.forEach(quickOpenService::removeNotes);
+            for (Write write : folderDeletes) {
+                quickOpenService.evict(write.userId());
+            }
+
+            noteSearchService.index(written);
+            noteSearchService.remove(deletedNoteIds.values().stream().flatMap(List::stream).toList());
+            // A folder deletion takes its whole subtree along, the tombstones list which folders that was
+            for (Write write : folderDeletes) {
+                noteSearchService.removeByFolders(syncTombstoneRepository.findEntityIds(
+                        write.userId(), SyncTombstone.TYPE_FOLDER, write.changeSeq()));
+            }
+        } catch (RuntimeException e) {
+            // The write has committed, so its request still succeeds. Quick-open reloads the affected users
+            // on their next lookup and the search index is rebuilt on the next start.
+            logger.error("Failed to apply {} committed changes to the search indexes", notifications.size(), e);
+            for (ChangeNotification notification : notifications) {
+                quickOpenService.evict(notification.userId());
+            }
+            noteSearchService.markStale();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.notesapp.notes_app.service;
+
+import com.notesapp.notes_app.dto.ChangeNotification;
+import com.notesapp.notes_app.dto.NoteBatchOperation;
+import com.notesapp.notes_app.dto.NoteBatchResponse;
+import com.notesapp.notes_app.exception.BatchValidationException;
+import com.notesapp.notes_app.mapper.NoteMapper;
+import com.notesapp.notes_app.model.Folder;
+import com.notesapp.notes_app.model.Note;
+import com.notesapp.notes_app.model.User;
+import com.notesapp.notes_app.repository.NoteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Applies a mixed list of note creates, updates and deletes as one unit
+ */
+@Service
+public class NoteBatchService {
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private FolderService folderService;
+
+    @Autowired
+    private NoteMapper noteMapper;
+
+    @Autowired
+    private CollectionVersionService collectionVersionService;
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Validate every operation up front, then apply them all in one transaction.
+     * Inserts and updates are flushed as JDBC batches.
+     * @param operations Operations in the order they should be applied
+     * @return Created, updated and deleted notes
+     * @throws BatchValidationException if any operation is invalid, in which case nothing is applied
+     */
+    @Transactional
+    public NoteBatchResponse apply(List<NoteBatchOperation> operations) {
+        Long userId = userService.getCurrentUserId();
+
+        Set<Long> folderIds = new HashSet<>();
+        Set<Long> noteIds = new HashSet<>();
+        for (NoteBatchOperation operation : operations) {
+            if (operation.getType() != NoteBatchOperation.Type.DELETE && operation.getFolderId() != null) {
+                folderIds.add(operation.getFolderId());
+            }
+            if (operation.getType() != NoteBatchOperation.Type.CREATE && operation.getId() != null) {
+                noteIds.add(operation.getId());
+            }
+        }
+
+        // Resolve every target folder in one query
+        Map<Long, Folder> folders = folderService.getFoldersForCurrentUser(folderIds);
+
+        // Load every note touched by an update or delete, with its body, in one query
+        Map<Long, Note> notes = new HashMap<>();
+        for (Note note : noteRepository.findWithBodyByIdIn(noteIds)) {
+            if (note.getUser().getId().equals(userId)) {
+                notes.put(note.getId(), note);
+            }
+        }
+
+        List<String> errors = validate(operations, folders, notes);
+        if (!errors.isEmpty()) {
+            throw new BatchValidationException(errors);
+        }
+
+        User currentUser = userService.getCurrentUser();
+        LocalDateTime now = LocalDateTime.now();
+        long changeSeq = collectionVersionService.bump(userId);
+        List<Note> created = new ArrayList<>();
+        List<Note> updated = new ArrayList<>();
+        List<Note> deleted = new ArrayList<>();
+        Map<Long, Long> folderCountDeltas = new HashMap<>();
+
+        for (NoteBatchOperation operation : operations) {
+            Folder folder = operation.getFolderId() != null ? folders.get(operation.getFolderId()) : null;
+            switch (operation.getType()) {
+                case CREATE -> {
+                    Note note = new Note();
+                    note.setTitle(operation.getTitle());
+                    note.setContent(operation.getContent());
+                    note.setUser(currentUser);
+                    note.setFolder(folder);
+                    note.setCreatedAt(now);
+                    note.setUpdatedAt(now);
+                    note.setChangeSeq(changeSeq);
+                    created.add(note);
+                    addCountDelta(folderCountDeltas, operation.getFolderId(), 1);
+                }
+                case UPDATE -> {
+                    Note note = notes.get(operation.getId());
+                    Long previousFolderId = note.getFolder() != null ? note.getFolder().getId() : null;
+                    note.setTitle(operation.getTitle());
+                    note.setContent(operation.getContent());
+                    note.setFolder(folder);
+                    note.setUpdatedAt(now);
+                    note.setChangeSeq(changeSeq);
+                    updated.add(note);
+                    if (!Objects.equals(previousFolderId, operation.getFolderId())) {
+                        addCountDelta(folderCountDeltas, previousFolderId, -1);
+                        addCountDelta(folderCountDeltas, operation.getFolderId(), 1);
+                    }
+                }
+                case DELETE -> {
+                    Note note = notes.get(operation.getId());
+                    deleted.add(note);
+                    addCountDelta(folderCountDeltas, note.getFolder() != null ? note.getFolder().getId() : null, -1);
+                }
+            }
+        }
+
+        List<Long> deletedIds = deleted.stream().map(Note::getId).toList();
+        noteRepository.saveAll(created);
+        // The tombstone insert flushes the pending batched inserts and updates first
+        if (!deletedIds.isEmpty()) {
+            syncService.recordNoteDeletions(deletedIds, changeSeq);
+            noteRepository.deleteAllByIdIn(deletedIds);
+        }
+        folderCountDeltas.forEach(folderService::adjustNoteCounts);
+        noteRepository.flush();
+
+        NoteBatchResponse response = new NoteBatchResponse();
+        for (Note note : created) {
+            eventPublisher.publishEvent(new ChangeNotification(userId, ChangeNotification.TYPE_NOTE, note.getId(),
+                    note.getVersion(), changeSeq, false));
+            response.getCreated().add(noteMapper.toNoteResponse(note));
+        }
+        for (Note note : updated) {
+            eventPublisher.publishEvent(new ChangeNotification(userId, ChangeNotification.TYPE_NOTE, note.getId(),
+                    note.getVersion(), changeSeq, false));
+            response.getUpdated().add(noteMapper.toNoteResponse(note));
+        }
+        for (Note note : deleted) {
+            eventPublisher.publishEvent(new ChangeNotification(userId, ChangeNotification.TYPE_NOTE, note.getId(),
+                    note.getVersion(), changeSeq, true));
+        }
+        response.getDeleted().addAll(deletedIds);
+        return response;
+    }
+
+    private List<String> validate(List<NoteBatchOperation> operations, Map<Long, Folder> folders,
+                                  Map<Long, Note> notes) {
+        List<String> errors = new ArrayList<>();
+        Set<Long> seenNoteIds = new HashSet<>();
+        for (int i = 0; i < operations.size(); i++) {
+            NoteBatchOperation operation = operations.get(i);
+            String prefix = "Operation " + i + ": ";
+
+            if (operation.getType() == null) {
+                errors.add(prefix + "type is required");
+                continue;
+            }
+            if (operation.getType() != NoteBatchOperation.Type.DELETE) {
+                if (operation.getTitle() == null || operation.getTitle().isBlank()) {
+                    errors.add(prefix + "Title cannot be empty");
+                }
+                if (operation.getFolderId() != null && !folders.containsKey(operation.getFolderId())) {
+                    errors.add(prefix + "Folder not found or access denied");
+                }
+            }
+            if (operation.getType() != NoteBatchOperation.Type.CREATE) {
+                if (operation.getId() == null || !notes.containsKey(operation.getId())) {
+                    errors.add(prefix + "Note not found or access denied");
+                } else if (!seenNoteIds.add(operation.getId())) {
+                    errors.add(prefix + "Note " + operation.getId() + " is changed more than once");
+                }
+            }
+        }
+        return errors;
+    }
+
+    private void addCountDelta(Map<Long, Long> deltas, Long folderId, long delta) {
+        if (folderId != null) {
+            deltas.merge(folderId, delta, Long::sum);
+        }
+    }
+}
@@ -0,0 +1,422 @@
+package com.notesapp.notes_app.service;
+
+import com.notesapp.notes_app.model.Note;
+import com.notesapp.notes_app.repository.NoteRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Full-text search over note titles and content, backed by an embedded on-disk Lucene index.
+ * Every document carries its owner's user ID and all queries are filtered on it, so each user
+ * only ever searches their own partition of the index.
+ */
+@Service
+public class NoteSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NoteSearchService.class);
+
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_USER_ID = "userId";
+    private static final String FIELD_FOLDER_ID = "folderId";
+    private static final String FIELD_TITLE = "title";
+    private static final String FIELD_CONTENT = "content";
+
+    // Title matches rank higher than content matches
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(FIELD_TITLE, 2.0f, FIELD_CONTENT, 1.0f);
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private static final int WRITER_THREADS = 2;
+
+    // Commit user data: "open" while the index is in use, "closed" once it was shut down with every change committed
+    private static final String COMMIT_STATE = "state";
+    private static final String STATE_OPEN = "open";
+    private static final String STATE_CLOSED = "closed";
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Value("${notes.search.index-dir:./data/search-index}")
+    private String indexDir;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private boolean rebuildRequired;
+
+    // Platform threads that apply index changes on behalf of request threads
+    private final ExecutorService writerPool = Executors.newFixedThreadPool(WRITER_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "search-index-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Set by every write, cleared by the periodic commit
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    // Set when a committed write could not be applied, keeps the index from being marked closed cleanly
+    private final AtomicBoolean stale = new AtomicBoolean();
+
+    private final AtomicLong queryCount = new AtomicLong();
+    private final AtomicLong totalQueryNanos = new AtomicLong();
+    private final AtomicLong maxQueryNanos = new AtomicLong();
+
+    /**
+     * Result of a search: note IDs in rank order and the total number of matches
+     */
+    public record SearchHits(long totalHits, List<Long> noteIds) {
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Path path = Paths.get(indexDir);
+        Files.createDirectories(path);
+        directory = FSDirectory.open(path);
+        if (!DirectoryReader.indexExists(directory)) {
+            rebuildRequired = true;
+        } else if (!STATE_CLOSED.equals(SegmentInfos.readLatestCommit(directory).getUserData().get(COMMIT_STATE))) {
+            // Changes applied after the last periodic commit were lost with the process
+            logger.warn("Search index in {} was not closed cleanly", indexDir);
+            rebuildRequired = true;
+        }
+
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, config);
+        // Committed right away, so a crash before the first periodic commit is detected too
+        writer.setLiveCommitData(Map.of(COMMIT_STATE, STATE_OPEN).entrySet());
+        writer.commit();
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    /**
+     * Rebuilds the index from the database on startup if no index was found on disk,
+     * or if the last run ended without committing all of its changes
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfMissing() throws IOException {
+        if (rebuildRequired) {
+            rebuild();
+            rebuildRequired = false;
+        }
+    }
+
+    /**
+     * Drops the index and re-indexes every note, reading the notes table in ID order batches
+     */
+    public void rebuild() throws IOException {
+        logger.info("Rebuilding note search index in {}", indexDir);
+        long started = System.nanoTime();
+
+        writer.deleteAll();
+        long lastId = 0;
+        long indexed = 0;
+        List<Note> batch;
+        do {
+            batch = noteRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(REBUILD_BATCH_SIZE));
+            for (Note note : batch) {
+                writer.addDocument(toDocument(note));
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+                indexed += batch.size();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        writer.commit();
+        searcherManager.maybeRefresh();
+        logger.info("Indexed {} notes in {} ms", indexed,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    /**
+     * Adds a note to the index, replacing any previous version of it
+     * @param note The saved note
+     */
+    public void index(Note note) {
+        // Built on the caller's thread, where the note's lazy body can still be loaded
+        Document document = toDocument(note);
+        try {
+            onWriterThread(() -> writer.updateDocument(idTerm(note.getId()), document));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to index note " + note.getId(), e);
+        }
+    }
+
+    /**
+     * Adds many notes to the index with a single reader reopen, replacing any previous versions of them
+     * @param notes The saved notes
+     */
+    public void index(Collection<Note> notes) {
+        if (notes.isEmpty()) {
+            return;
+        }
+        List<Document> documents = notes.stream().map(this::toDocument).toList();
+        try {
+            onWriterThread(() -> {
+                for (Document document : documents) {
+                    writer.updateDocument(new Term(FIELD_ID, document.get(FIELD_ID)), document);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to index " + notes.size() + " notes", e);
+        }
+    }
+
+    /**
+     * Removes notes from the index
+     * @param noteIds IDs of the deleted notes
+     */
+    public void remove(Collection<Long> noteIds) {
+        if (noteIds.isEmpty()) {
+            return;
+        }
+        Term[] terms = noteIds.stream().map(this::idTerm).toArray(Term[]::new);
+        try {
+            onWriterThread(() -> writer.deleteDocuments(terms));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to remove notes from search index", e);
+        }
+    }
+
+    /**
+     * Removes all notes filed in the given folders from the index
+     * @param folderIds IDs of the deleted folders
+     */
+    public void removeByFolders(Collection<Long> folderIds) {
+        if (folderIds.isEmpty()) {
+            return;
+        }
+        Term[] terms = folderIds.stream()
+                .map(folderId -> new Term(FIELD_FOLDER_ID, folderId.toString()))
+                .toArray(Term[]::new);
+        try {
+            onWriterThread(() -> writer.deleteDocuments(terms));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to remove folders from search index", e);
+        }
+    }
+
+    /**
+     * Searches the given user's notes. Supports quoted phrases, + / - operators and trailing * prefixes.
+     * @param userId Owner of the notes to search
+     * @param queryText The user's query
+     * @param folderId Optional folder to restrict results to
+     * @param page Zero-based page number
+     * @param size Page size, (page + 1) * size must fit in an int
+     * @return Matching note IDs in rank order
+     */
+    public SearchHits search(Long userId, String queryText, Long folderId, int page, int size) throws IOException {
+        long started = System.nanoTime();
+
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, FIELD_WEIGHTS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query textQuery = parser.parse(queryText);
+        if (textQuery == null) {
+            // Query contained nothing searchable, e.g. only punctuation
+            return new SearchHits(0, List.of());
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(FIELD_USER_ID, userId.toString())), BooleanClause.Occur.FILTER)
+                .add(textQuery, BooleanClause.Occur.MUST);
+        if (folderId != null) {
+            query.add(new TermQuery(new Term(FIELD_FOLDER_ID, folderId.toString())), BooleanClause.Occur.FILTER);
+        }
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs topDocs = searcher.search(query.build(), Math.multiplyExact(Math.addExact(page, 1), size));
+            ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+
+            List<Long> noteIds = new ArrayList<>();
+            for (int i = page * size; i < scoreDocs.length; i++) {
+                Document document = searcher.storedFields().document(scoreDocs[i].doc);
+                noteIds.add(Long.valueOf(document.get(FIELD_ID)));
+            }
+            return new SearchHits(topDocs.totalHits.value, noteIds);
+        } finally {
+            searcherManager.release(searcher);
+            recordQuery(System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Get the number of indexed notes, changes not yet visible to searches included
+     */
+    public long getDocumentCount() {
+        return writer.getDocStats().numDocs;
+    }
+
+    /**
+     * Get the size of the index files on disk
+     */
+    public long getSizeBytes() {
+        long sizeBytes = 0;
+        try {
+            for (String file : directory.listAll()) {
+                try {
+                    sizeBytes += directory.fileLength(file);
+                } catch (IOException e) {
+                    // File was merged away while we were listing
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list the search index files", e);
+        }
+        return sizeBytes;
+    }
+
+    public long getQueryCount() {
+        return queryCount.get();
+    }
+
+    public long getTotalQueryNanos() {
+        return totalQueryNanos.get();
+    }
+
+    public long getMaxQueryNanos() {
+        return maxQueryNanos.get();
+    }
+
+    /**
+     * Record that a committed write could not be applied, so that the index is rebuilt on the next start
+     */
+    public void markStale() {
+        stale.set(true);
+    }
+
+    /**
+     * Periodically makes pending index changes durable
+     */
+    @Scheduled(fixedDelayString = "${notes.search.commit-interval-ms:5000}")
+    public void commitIfDirty() throws IOException {
+        if (dirty.getAndSet(false)) {
+            writer.commit();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        writerPool.shutdown();
+        try {
+            // Let changes already handed off finish before the writer goes away
+            writerPool.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        searcherManager.close();
+        if (!stale.get()) {
+            writer.setLiveCommitData(Map.of(COMMIT_STATE, STATE_CLOSED).entrySet());
+        }
+        // Commits on close
+        writer.close();
+        directory.close();
+    }
+
+    /**
+     * Applies an index change on the writer pool and waits for it. Lucene's writer and reader reopen
+     * hold object monitors while flushing to disk, which would pin the carrier of a virtual thread,
+     * so request threads hand the change off and park instead.
+     */
+    private void onWriterThread(IndexChange change) throws IOException {
+        Future<Void> result = writerPool.submit(() -> {
+            change.apply();
+            dirty.set(true);
+            // Make the change visible to searches right away, durability follows on the next commit
+            searcherManager.maybeRefresh();
+            return null;
+        });
+        try {
+            result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IllegalStateException("Search index change failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while updating the search index");
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexChange {
+        void apply() throws IOException;
+    }
+
+    private void recordQuery(long nanos) {
+        queryCount.incrementAndGet();
+        totalQueryNanos.addAndGet(nanos);
+        maxQueryNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private Term idTerm(Long noteId) {
+        return new Term(FIELD_ID, noteId.toString());
+    }
+
+    private Document toDocument(Note note) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_ID, note.getId().toString(), Field.Store.YES));
+        document.add(new StringField(FIELD_USER_ID, note.getUser().getId().toString(), Field.Store.NO));
+        if (note.getFolder() != null) {
+            document.add(new StringField(FIELD_FOLDER_ID, note.getFolder().getId().toString(), Field.Store.NO));
+        }
+        document.add(new TextField(FIELD_TITLE, note.getTitle(), Field.Store.NO));
+        String content = note.getContent();
+        if (content != null) {
+            document.add(new TextField(FIELD_CONTENT, content, Field.Store.NO));
+        }
+        return document;
+    }
+}
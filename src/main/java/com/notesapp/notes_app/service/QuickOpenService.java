@@ -0,0 +1,298 @@
+package com.notesapp.notes_app.service;
+
+import com.notesapp.notes_app.dto.QuickOpenEntry;
+import com.notesapp.notes_app.repository.FolderRepository;
+import com.notesapp.notes_app.repository.NoteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+/**
+ * Serves quick-open (typeahead) lookups from an in-memory, per-user sorted array of normalized
+ * note titles and folder names. A user's index is loaded from the database on first use, kept
+ * current by {@link IndexMaintenanceService} as writes commit, and evicted least-recently-used
+ * once more than the configured number of users are cached.
+ */
+@Service
+public class QuickOpenService {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private FolderRepository folderRepository;
+
+    @Value("${notes.quick-open.max-entries-per-user:20000}")
+    private int maxEntriesPerUser;
+
+    @Value("${notes.quick-open.max-users:10000}")
+    private int maxUsers;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Access-ordered, so iteration starts at the least recently used user
+    private final LinkedHashMap<Long, TitleIndex> indexes = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, TitleIndex> eldest) {
+            return size() > maxUsers;
+        }
+    };
+
+    // Users with a load in flight, so a load only has to notice concurrent writes of its own user
+    private final Map<Long, LoadWatch> loadWatches = new HashMap<>();
+
+    private static final class LoadWatch {
+        int loads;
+        long writes;
+    }
+
+    /**
+     * Find the user's notes and folders whose normalized title starts with the given prefix
+     * @param userId Owner of the notes and folders
+     * @param prefix Typed prefix, matched case and accent insensitively
+     * @param limit Maximum number of matches
+     * @return Matches in alphabetical order
+     */
+    public List<QuickOpenEntry> findByPrefix(Long userId, String prefix, int limit) {
+        TitleIndex index = getIndex(userId);
+        if (index == null) {
+            index = load(userId);
+        }
+        return index.findByPrefix(normalize(prefix), limit);
+    }
+
+    public void putNote(Long userId, Long noteId, String title) {
+        put(userId, new QuickOpenEntry(QuickOpenEntry.TYPE_NOTE, noteId, title));
+    }
+
+    public void putFolder(Long userId, Long folderId, String name) {
+        put(userId, new QuickOpenEntry(QuickOpenEntry.TYPE_FOLDER, folderId, name));
+    }
+
+    public void removeNotes(Long userId, List<Long> noteIds) {
+        update(userId, index -> index.without(QuickOpenEntry.TYPE_NOTE, new HashSet<>(noteIds)));
+    }
+
+    public void removeFolder(Long userId, Long folderId) {
+        update(userId, index -> index.without(QuickOpenEntry.TYPE_FOLDER, Set.of(folderId)));
+    }
+
+    /**
+     * Drops the user's index after a change too large to apply entry by entry, the next lookup reloads it
+     */
+    public void evict(Long userId) {
+        lock.lock();
+        try {
+            recordWrite(userId);
+            indexes.remove(userId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Normalizes a title for prefix matching: accents stripped, lower-cased, whitespace collapsed
+     */
+    static String normalize(String title) {
+        if (title == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(title, Normalizer.Form.NFKD);
+        String stripped = DIACRITICS.matcher(decomposed).replaceAll("");
+        return WHITESPACE.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private void put(Long userId, QuickOpenEntry entry) {
+        update(userId, index -> {
+            TitleIndex updated = index.with(entry);
+            // Over the per-user bound: drop the index, the next lookup reloads the most recent entries with headroom
+            return updated.size() > maxEntriesPerUser ? null : updated;
+        });
+    }
+
+    private void update(Long userId, UnaryOperator<TitleIndex> change) {
+        lock.lock();
+        try {
+            recordWrite(userId);
+            TitleIndex index = indexes.get(userId);
+            if (index != null) {
+                TitleIndex updated = change.apply(index);
+                if (updated == null) {
+                    indexes.remove(userId);
+                } else {
+                    indexes.put(userId, updated);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called with the lock held
+    private void recordWrite(Long userId) {
+        LoadWatch watch = loadWatches.get(userId);
+        if (watch != null) {
+            watch.writes++;
+        }
+    }
+
+    private TitleIndex getIndex(Long userId) {
+        lock.lock();
+        try {
+            return indexes.get(userId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private TitleIndex load(Long userId) {
+        LoadWatch watch;
+        long writesBefore;
+        lock.lock();
+        try {
+            watch = loadWatches.computeIfAbsent(userId, id -> new LoadWatch());
+            watch.loads++;
+            writesBefore = watch.writes;
+        } finally {
+            lock.unlock();
+        }
+
+        TitleIndex index = null;
+        try {
+            // Most recently updated first, so the per-user bound keeps the entries most likely to be opened.
+            // Filled a tenth below the bound, so a user at the bound can add notes before the index is dropped
+            int limit = maxEntriesPerUser - maxEntriesPerUser / 10;
+            List<QuickOpenEntry> entries = new ArrayList<>(
+                    noteRepository.findQuickOpenEntriesByUserId(userId, Limit.of(limit)));
+            int remaining = limit - entries.size();
+            if (remaining > 0) {
+                entries.addAll(folderRepository.findQuickOpenEntriesByUserId(userId, Limit.of(remaining)));
+            }
+            index = TitleIndex.of(entries);
+        } finally {
+            lock.lock();
+            try {
+                // Only cache if no write of this user could have slipped in between the query and now
+                if (index != null && watch.writes == writesBefore) {
+                    indexes.putIfAbsent(userId, index);
+                }
+                if (--watch.loads == 0) {
+                    loadWatches.remove(userId);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Immutable snapshot of one user's titles, sorted by normalized key. Writes produce a new copy.
+     */
+    private static final class TitleIndex {
+        private final String[] keys;
+        private final QuickOpenEntry[] entries;
+
+        private TitleIndex(String[] keys, QuickOpenEntry[] entries) {
+            this.keys = keys;
+            this.entries = entries;
+        }
+
+        static TitleIndex of(List<QuickOpenEntry> entries) {
+            String[] unsortedKeys = new String[entries.size()];
+            Integer[] order = new Integer[entries.size()];
+            for (int i = 0; i < unsortedKeys.length; i++) {
+                unsortedKeys[i] = normalize(entries.get(i).getTitle());
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparing(i -> unsortedKeys[i]));
+
+            String[] keys = new String[order.length];
+            QuickOpenEntry[] sortedEntries = new QuickOpenEntry[order.length];
+            for (int i = 0; i < order.length; i++) {
+                keys[i] = unsortedKeys[order[i]];
+                sortedEntries[i] = entries.get(order[i]);
+            }
+            return new TitleIndex(keys, sortedEntries);
+        }
+
+        int size() {
+            return entries.length;
+        }
+
+        List<QuickOpenEntry> findByPrefix(String prefix, int limit) {
+            int position = lowerBound(keys, prefix);
+            List<QuickOpenEntry> matches = new ArrayList<>(Math.min(limit, 16));
+            for (int i = position; i < keys.length && matches.size() < limit && keys[i].startsWith(prefix); i++) {
+                matches.add(entries[i]);
+            }
+            return matches;
+        }
+
+        TitleIndex with(QuickOpenEntry entry) {
+            TitleIndex base = without(entry.getType(), Set.of(entry.getId()));
+            String key = normalize(entry.getTitle());
+            int position = lowerBound(base.keys, key);
+
+            int length = base.keys.length;
+            String[] keys = new String[length + 1];
+            QuickOpenEntry[] entries = new QuickOpenEntry[length + 1];
+            System.arraycopy(base.keys, 0, keys, 0, position);
+            System.arraycopy(base.entries, 0, entries, 0, position);
+            keys[position] = key;
+            entries[position] = entry;
+            System.arraycopy(base.keys, position, keys, position + 1, length - position);
+            System.arraycopy(base.entries, position, entries, position + 1, length - position);
+            return new TitleIndex(keys, entries);
+        }
+
+        // First position whose key is not less than the given key, unlike binarySearch this is stable for duplicates
+        private static int lowerBound(String[] keys, String key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (keys[middle].compareTo(key) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        TitleIndex without(String type, Set<Long> ids) {
+            List<String> keptKeys = new ArrayList<>(keys.length);
+            List<QuickOpenEntry> keptEntries = new ArrayList<>(entries.length);
+            for (int i = 0; i < entries.length; i++) {
+                if (!(entries[i].getType().equals(type) && ids.contains(entries[i].getId()))) {
+                    keptKeys.add(keys[i]);
+                    keptEntries.add(entries[i]);
+                }
+            }
+            if (keptEntries.size() == entries.length) {
+                return this;
+            }
+            return new TitleIndex(keptKeys.toArray(String[]::new), keptEntries.toArray(QuickOpenEntry[]::new));
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.notesapp.notes_app.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notesapp.notes_app.dto.ChangeNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Caches the serialized JSON of frequently repeated listing responses, per user and endpoint.
+ * Every entry is tagged with the user's collection version it was built at and only served while
+ * that version is current, so a write is never hidden even on another node. Writes on this node
+ * also drop the user's entries as soon as they commit, to free the memory right away.
+ * The cache is bounded by total size, least recently used users are evicted first.
+ */
+@Service
+public class ResponseCacheService {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${notes.response-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notes.response-cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${notes.response-cache.max-entry-bytes:1048576}")
+    private int maxEntryBytes;
+
+    @Value("${notes.response-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Access-ordered, so iteration starts at the least recently used user
+    private final LinkedHashMap<Long, UserEntries> entriesByUser = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long totalBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // The cached responses of one user, all built at the same collection version
+    private static final class UserEntries {
+        final long version;
+        final Map<String, CachedResponse> responses = new HashMap<>();
+        long bytes;
+
+        UserEntries(long version) {
+            this.version = version;
+        }
+    }
+
+    private record CachedResponse(byte[] body, long expiresAtMillis) {
+    }
+
+    /**
+     * Serve a response from the cache, or build, serialize and cache it.
+     * Only successful responses are cached, anything else is returned as built.
+     * @param userId Owner of the data in the response
+     * @param version The user's collection version, read before the response is built
+     * @param key Endpoint and every request parameter that shapes the response
+     * @param loader Builds the response on a miss
+     * @return The cached JSON, or the freshly built response
+     */
+    public ResponseEntity<?> getOrLoad(Long userId, long version, String key, Supplier<ResponseEntity<?>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        byte[] cached = get(userId, version, key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return toJsonResponse(cached);
+        }
+        misses.incrementAndGet();
+
+        ResponseEntity<?> response = loader.get();
+        if (response == null || !response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            return response;
+        }
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(response.getBody());
+        } catch (JsonProcessingException e) {
+            return response;
+        }
+        if (body.length <= maxEntryBytes) {
+            put(userId, version, key, body);
+        }
+        return toJsonResponse(body);
+    }
+
+    /**
+     * Drop a user's entries once a write of theirs commits
+     * @param notification The committed change
+     */
+    @TransactionalEventListener
+    public void onChange(ChangeNotification notification) {
+        evict(notification.userId());
+    }
+
+    /**
+     * Drop all cached responses of a user
+     */
+    public void evict(Long userId) {
+        lock.lock();
+        try {
+            UserEntries entries = entriesByUser.remove(userId);
+            if (entries != null) {
+                totalBytes -= entries.bytes;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getSizeBytes() {
+        lock.lock();
+        try {
+            return totalBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private byte[] get(Long userId, long version, String key) {
+        lock.lock();
+        try {
+            UserEntries entries = entriesByUser.get(userId);
+            if (entries == null || entries.version != version) {
+                return null;
+            }
+            CachedResponse response = entries.responses.get(key);
+            if (response == null) {
+                return null;
+            }
+            if (response.expiresAtMillis() <= System.currentTimeMillis()) {
+                entries.responses.remove(key);
+                entries.bytes -= response.body().length;
+                totalBytes -= response.body().length;
+                evictions.incrementAndGet();
+                return null;
+            }
+            return response.body();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(Long userId, long version, String key, byte[] body) {
+        lock.lock();
+        try {
+            UserEntries entries = entriesByUser.get(userId);
+            if (entries != null && entries.version > version) {
+                // Built from data that has since changed
+                return;
+            }
+            if (entries == null || entries.version < version) {
+                if (entries != null) {
+                    totalBytes -= entries.bytes;
+                }
+                entries = new UserEntries(version);
+                entriesByUser.put(userId, entries);
+            }
+
+            CachedResponse previous = entries.responses.put(key,
+                    new CachedResponse(body, System.currentTimeMillis() + ttlSeconds * 1000));
+            long delta = body.length - (previous != null ? previous.body().length : 0);
+            entries.bytes += delta;
+            totalBytes += delta;
+
+            // Evict least recently used users until back under the bound, never the one just written
+            Iterator<Map.Entry<Long, UserEntries>> eldest = entriesByUser.entrySet().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<Long, UserEntries> candidate = eldest.next();
+                if (candidate.getKey().equals(userId)) {
+                    continue;
+                }
+                totalBytes -= candidate.getValue().bytes;
+                evictions.addAndGet(candidate.getValue().responses.size());
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static ResponseEntity<byte[]> toJsonResponse(byte[] body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
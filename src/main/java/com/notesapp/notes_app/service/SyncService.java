@@ -0,0 +1,157 @@
+package com.notesapp.notes_app.service;
+
+import com.notesapp.notes_app.dto.FolderResponse;
+import com.notesapp.notes_app.dto.SyncChangesResponse;
+import com.notesapp.notes_app.dto.SyncCursor;
+import com.notesapp.notes_app.dto.SyncDeletion;
+import com.notesapp.notes_app.mapper.FolderMapper;
+import com.notesapp.notes_app.mapper.NoteMapper;
+import com.notesapp.notes_app.model.Folder;
+import com.notesapp.notes_app.model.Note;
+import com.notesapp.notes_app.model.SyncTombstone;
+import com.notesapp.notes_app.repository.FolderRepository;
+import com.notesapp.notes_app.repository.NoteRepository;
+import com.notesapp.notes_app.repository.SyncTombstoneRepository;
+import com.notesapp.notes_app.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Change feed for client sync. Every note and folder row carries the change sequence of the write that
+ * last touched it, and deletions leave tombstones, so a client only downloads what changed since its cursor.
+ */
+@Service
+public class SyncService {
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private FolderRepository folderRepository;
+
+    @Autowired
+    private SyncTombstoneRepository syncTombstoneRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private NoteMapper noteMapper;
+
+    @Autowired
+    private FolderMapper folderMapper;
+
+    @Value("${notes.sync.tombstone-retention-days:90}")
+    private int tombstoneRetentionDays;
+
+    // One change of any kind, positioned in feed order
+    private record Change(SyncCursor position, Object item) {
+    }
+
+    /**
+     * Get the current user's changes after a cursor, oldest first
+     * @param since Cursor returned by a previous call, or null to receive every live note and folder
+     * @param size Maximum number of changes in the page
+     * @return Changed folders and notes, deletions, and the cursor for the next call
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public SyncChangesResponse getChanges(String since, int size) {
+        Long userId = userService.getCurrentUserId();
+        SyncCursor cursor = SyncCursor.decode(since);
+        SyncChangesResponse response = new SyncChangesResponse();
+
+        // Deletions before the floor have been pruned, so the client can't catch up incrementally
+        long syncFloor = userRepository.findSyncFloorById(userId).orElse(0L);
+        if (!cursor.equals(SyncCursor.START) && cursor.changeSeq() < syncFloor) {
+            response.setFullResyncRequired(true);
+            response.setCursor(SyncCursor.START.encode());
+            response.setHasMore(true);
+            return response;
+        }
+
+        // Fetch one extra change per source to know whether another page follows
+        Limit limit = Limit.of(size + 1);
+        List<Change> changes = new ArrayList<>();
+        for (Folder folder : folderRepository.findChanges(userId, cursor.changeSeq(),
+                cursor.idAfter(SyncCursor.KIND_FOLDER), limit)) {
+            changes.add(new Change(new SyncCursor(folder.getChangeSeq(), SyncCursor.KIND_FOLDER, folder.getId()),
+                    folderMapper.toFolderResponse(folder)));
+        }
+        for (Note note : noteRepository.findChanges(userId, cursor.changeSeq(),
+                cursor.idAfter(SyncCursor.KIND_NOTE), limit)) {
+            changes.add(new Change(new SyncCursor(note.getChangeSeq(), SyncCursor.KIND_NOTE, note.getId()),
+                    note));
+        }
+        // A client starting from scratch has nothing to delete
+        if (!cursor.equals(SyncCursor.START)) {
+            for (SyncTombstone tombstone : syncTombstoneRepository.findChanges(userId, cursor.changeSeq(),
+                    cursor.idAfter(SyncCursor.KIND_DELETION), limit)) {
+                changes.add(new Change(
+                        new SyncCursor(tombstone.getChangeSeq(), SyncCursor.KIND_DELETION, tombstone.getId()),
+                        new SyncDeletion(tombstone.getEntityType(), tombstone.getEntityId())));
+            }
+        }
+
+        changes.sort(Comparator.comparingLong((Change change) -> change.position().changeSeq())
+                .thenComparingInt(change -> change.position().kind())
+                .thenComparingLong(change -> change.position().id()));
+
+        List<Change> page = changes.size() > size ? changes.subList(0, size) : changes;
+        for (Change change : page) {
+            switch (change.position().kind()) {
+                case SyncCursor.KIND_FOLDER -> response.getFolders().add((FolderResponse) change.item());
+                case SyncCursor.KIND_NOTE -> response.getNotes().add(noteMapper.toNoteResponse((Note) change.item()));
+                default -> response.getDeletions().add((SyncDeletion) change.item());
+            }
+        }
+
+        response.setHasMore(changes.size() > size);
+        response.setCursor((page.isEmpty() ? cursor : page.get(page.size() - 1).position()).encode());
+        return response;
+    }
+
+    /**
+     * Leave tombstones for notes about to be deleted, in the caller's transaction
+     * @param noteIds IDs of the notes, which must still exist
+     * @param changeSeq Change sequence of the deleting write
+     */
+    @Transactional
+    public void recordNoteDeletions(Collection<Long> noteIds, long changeSeq) {
+        syncTombstoneRepository.insertForNotes(noteIds, changeSeq);
+    }
+
+    /**
+     * Leave tombstones for a folder about to be deleted, all of its descendants and all of the notes they contain
+     * @param folderId ID of the top folder, which must still exist
+     * @param changeSeq Change sequence of the deleting write
+     */
+    @Transactional
+    public void recordFolderSubtreeDeletion(Long folderId, long changeSeq) {
+        syncTombstoneRepository.insertForNotesInFolderSubtree(folderId, changeSeq);
+        syncTombstoneRepository.insertForFolderSubtree(folderId, changeSeq);
+    }
+
+    /**
+     * Drop tombstones older than the retention period. Clients whose cursor predates them are told
+     * to sync again from the start.
+     */
+    @Transactional
+    @Scheduled(cron = "${notes.sync.tombstone-prune-cron:0 0 4 * * *}")
+    public void pruneTombstones() {
+        syncTombstoneRepository.pruneOlderThan(LocalDateTime.now().minusDays(tombstoneRetentionDays));
+    }
+}
@@ -2,7 +2,9 @@ package com.notesapp.notes_app.service;
 
 import com.notesapp.notes_app.model.User;
 import com.notesapp.notes_app.repository.UserRepository;
+import com.notesapp.notes_app.security.AuthenticatedUser;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
@@ -16,21 +18,30 @@ public class UserService {
 
     /**
      * Get the current authenticated user
-     * @return the User object of the currently authenticated user
+     * @return a reference to the User of the currently authenticated user, only loaded from the
+     *         database when a field other than the ID is accessed
      * @throws RuntimeException if the user is not found
      */
     public User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("Current user not found"));
+        return userRepository.getReferenceById(getCurrentUserId());
     }
 
     /**
-     * Get the ID of the current authenticated user
+     * Get the ID of the current authenticated user, taken from the principal built from the JWT
      * @return the ID of the currently authenticated user
+     * @throws RuntimeException if the user is not found
      */
     public Long getCurrentUserId() {
-        return getCurrentUser().getId();
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+
+        // Fall back to a lookup for any other kind of authentication
+        String username = authentication != null ? authentication.getName() : null;
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("Current user not found"))
+                .getId();
     }
 
     /**
@@ -0,0 +1,6 @@
+-- Indexes backing the keyset-paginated note listings (ORDER BY updated_at DESC, id DESC)
+CREATE INDEX IF NOT EXISTS idx_notes_user_updated
+    ON notes (user_id, updated_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_notes_user_folder_updated
+    ON notes (user_id, folder_id, updated_at DESC, id DESC);
@@ -0,0 +1,20 @@
+-- Direct and subtree note counters maintained by the note and folder write paths
+ALTER TABLE folders
+    ADD COLUMN IF NOT EXISTS note_count BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS subtree_note_count BIGINT NOT NULL DEFAULT 0;
+
+-- Backfill, same statements as the scheduled repair job
+UPDATE folders f SET note_count = (SELECT COUNT(*) FROM notes n WHERE n.folder_id = f.id);
+
+WITH RECURSIVE tree(ancestor_id, folder_id) AS (
+    SELECT id, id FROM folders
+    UNION
+    SELECT t.ancestor_id, f.id FROM folders f JOIN tree t ON f.parent_folder_id = t.folder_id
+)
+UPDATE folders f SET subtree_note_count = s.total
+FROM (
+    SELECT t.ancestor_id, SUM(c.note_count) AS total
+    FROM tree t JOIN folders c ON c.id = t.folder_id
+    GROUP BY t.ancestor_id
+) s
+WHERE f.id = s.ancestor_id AND f.subtree_note_count <> s.total;
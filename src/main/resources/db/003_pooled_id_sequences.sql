@@ -0,0 +1,8 @@
+-- Notes and folders switch from IDENTITY to pooled sequence ids (allocationSize = 50)
+-- so that Hibernate can batch inserts. The sequence increment must match allocationSize.
+ALTER TABLE notes ALTER COLUMN id SET INCREMENT BY 50;
+ALTER TABLE folders ALTER COLUMN id SET INCREMENT BY 50;
+
+-- For databases where the id columns were created as SERIAL rather than IDENTITY use instead:
+-- ALTER SEQUENCE notes_id_seq INCREMENT BY 50;
+-- ALTER SEQUENCE folders_id_seq INCREMENT BY 50;
@@ -0,0 +1,35 @@
+-- Moves note bodies out of the notes table into note_contents, which Hibernate loads lazily.
+-- notes keeps a short excerpt so list views never have to read the body.
+-- Run in one transaction with the application stopped.
+BEGIN;
+
+CREATE SEQUENCE note_contents_id_seq INCREMENT BY 50;
+
+CREATE TABLE note_contents (
+    id BIGINT PRIMARY KEY,
+    data BYTEA,
+    compressed BOOLEAN NOT NULL DEFAULT FALSE,
+    original_length INTEGER NOT NULL DEFAULT 0
+);
+
+ALTER TABLE notes ADD COLUMN content_id BIGINT;
+ALTER TABLE notes ADD COLUMN excerpt VARCHAR(160);
+
+-- Existing bodies are copied uncompressed, reusing the note id as the content id.
+-- The application compresses large bodies the next time each note is saved.
+INSERT INTO note_contents (id, data, compressed, original_length)
+SELECT id, convert_to(content, 'UTF8'), FALSE, COALESCE(octet_length(content), 0)
+FROM notes;
+
+UPDATE notes SET content_id = id, excerpt = LEFT(content, 160);
+
+-- With allocationSize = 50 the next block of ids starts right after the current maximum
+SELECT setval('note_contents_id_seq', GREATEST((SELECT MAX(id) FROM note_contents), 1));
+
+ALTER TABLE notes ALTER COLUMN content_id SET NOT NULL;
+ALTER TABLE notes ADD CONSTRAINT fk_notes_content FOREIGN KEY (content_id) REFERENCES note_contents (id);
+ALTER TABLE notes ADD CONSTRAINT uk_notes_content UNIQUE (content_id);
+
+ALTER TABLE notes DROP COLUMN content;
+
+COMMIT;
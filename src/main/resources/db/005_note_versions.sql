@@ -0,0 +1,2 @@
+-- Optimistic locking version for notes, existing notes start at version 0
+ALTER TABLE notes ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
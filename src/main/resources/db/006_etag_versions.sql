@@ -0,0 +1,3 @@
+-- Per-folder optimistic locking version and per-user collection version, both used for entity tags
+ALTER TABLE folders ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN collection_version BIGINT NOT NULL DEFAULT 0;
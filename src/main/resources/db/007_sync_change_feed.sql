@@ -0,0 +1,20 @@
+-- Change feed for client sync. Rows written before this migration keep change_seq 0
+-- and are delivered to every client on its first sync.
+ALTER TABLE notes ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE folders ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN sync_floor BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_notes_user_change_seq ON notes (user_id, change_seq, id);
+CREATE INDEX idx_folders_user_change_seq ON folders (user_id, change_seq, id);
+
+CREATE TABLE sync_tombstones (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users (id),
+    entity_type VARCHAR(255) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    change_seq BIGINT NOT NULL,
+    deleted_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX idx_sync_tombstones_user_change_seq ON sync_tombstones (user_id, change_seq, id);
+CREATE INDEX idx_sync_tombstones_deleted_at ON sync_tombstones (deleted_at);
@@ -0,0 +1,50 @@
+package com.notesapp.notes_app.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConcurrencyLimitedDataSourceTest {
+
+	@Test
+	void limitsCheckedOutConnectionsAndReleasesOnClose() throws SQLException {
+		DataSource target = mock(DataSource.class);
+		Connection connection = mock(Connection.class);
+		when(target.getConnection()).thenReturn(connection);
+		ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, 2, 10);
+
+		Connection first = dataSource.getConnection();
+		Connection second = dataSource.getConnection();
+		assertEquals(2, dataSource.getActiveConnections());
+		assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+		first.close();
+		first.close();
+		assertEquals(1, dataSource.getActiveConnections());
+		verify(connection, times(2)).close();
+
+		dataSource.getConnection();
+		second.close();
+		assertEquals(1, dataSource.getActiveConnections());
+	}
+
+	@Test
+	void releasesThePermitWhenThePoolFails() throws SQLException {
+		DataSource target = mock(DataSource.class);
+		when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+		ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, 1, 10);
+
+		assertThrows(SQLException.class, dataSource::getConnection);
+		assertEquals(0, dataSource.getActiveConnections());
+	}
+}
@@ -0,0 +1,137 @@
+package com.notesapp.notes_app.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExportControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private String token;
+
+	@BeforeAll
+	void seed() throws Exception {
+		String credentials = "{\"username\":\"export\",\"password\":\"export-password\"}";
+		mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON).content(credentials))
+				.andExpect(status().isOk());
+		token = perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(credentials))
+				.path("data").path("accessToken").asText();
+
+		long work = createFolder("{\"name\":\"Work\"}");
+		long plans = createFolder("{\"name\":\"Plans: 2026\",\"parentFolderId\":" + work + "}");
+		createFolder("{\"name\":\"Empty\"}");
+		createNote("Ideas", "Top level", null);
+		createNote("Budget", "Numbers", plans);
+		createNote("Budget", "Other numbers", plans);
+		// Large enough to be stored compressed
+		createNote("Long", "x".repeat(10_000), work);
+	}
+
+	@Test
+	void exportsNdjsonWithParentsBeforeChildren() throws Exception {
+		String body = export("ndjson").getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+		List<JsonNode> lines = new ArrayList<>();
+		for (String line : body.split("\n")) {
+			lines.add(objectMapper.readTree(line));
+		}
+		assertEquals(3 + 4 + 1, lines.size());
+		assertEquals("Work", lines.get(0).path("name").asText());
+		assertEquals("Plans: 2026", lines.get(2).path("name").asText());
+		assertEquals(10_000, lines.stream().filter(line -> "Long".equals(line.path("title").asText()))
+				.findFirst().orElseThrow().path("content").asText().length());
+		JsonNode end = lines.get(lines.size() - 1);
+		assertEquals("end", end.path("type").asText());
+		assertEquals(3, end.path("folders").asInt());
+		assertEquals(4, end.path("notes").asInt());
+	}
+
+	@Test
+	void exportsMarkdownZipMirroringFolders() throws Exception {
+		byte[] body = export("zip").getResponse().getContentAsByteArray();
+
+		Map<String, String> entries = new HashMap<>();
+		try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(body), StandardCharsets.UTF_8)) {
+			for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+				entries.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+			}
+		}
+		assertTrue(entries.containsKey("Empty/"));
+		assertEquals("Top level", entries.get("Ideas.md"));
+		assertEquals("Numbers", entries.get("Work/Plans_ 2026/Budget.md"));
+		assertEquals("Other numbers", entries.get("Work/Plans_ 2026/Budget (2).md"));
+		assertEquals(10_000, entries.get("Work/Long.md").length());
+	}
+
+	@Test
+	void rejectsUnknownFormat() throws Exception {
+		MvcResult started = mockMvc.perform(authorized(get("/api/export?format=pdf"))).andReturn();
+		mockMvc.perform(asyncDispatch(started)).andExpect(status().isBadRequest());
+	}
+
+	private MvcResult export(String format) throws Exception {
+		MvcResult started = mockMvc.perform(authorized(get("/api/export?format=" + format)))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		return mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn();
+	}
+
+	private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+		return request.header("Authorization", "Bearer " + token);
+	}
+
+	private long createFolder(String json) throws Exception {
+		return perform(authorized(post("/api/folders")).contentType(MediaType.APPLICATION_JSON).content(json))
+				.path("data").path("id").asLong();
+	}
+
+	private void createNote(String title, String content, Long folderId) throws Exception {
+		Map<String, Object> note = new HashMap<>();
+		note.put("title", title);
+		note.put("content", content);
+		note.put("folderId", folderId);
+		perform(authorized(post("/api/notes")).contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(note)));
+	}
+
+	private JsonNode perform(MockHttpServletRequestBuilder request) throws Exception {
+		String body = mockMvc.perform(request).andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+}
@@ -0,0 +1,76 @@
+package com.notesapp.notes_app.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FolderControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private String token;
+
+	@BeforeAll
+	void seed() throws Exception {
+		String credentials = "{\"username\":\"folder-owner\",\"password\":\"folder-password\"}";
+		mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON).content(credentials))
+				.andExpect(status().isOk());
+		token = perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(credentials))
+				.path("data").path("accessToken").asText();
+	}
+
+	@Test
+	void rejectsMovingAFolderUnderItsOwnDescendant() throws Exception {
+		long top = createFolder("{\"name\":\"Top\"}");
+		long middle = createFolder("{\"name\":\"Middle\",\"parentFolderId\":" + top + "}");
+		long bottom = createFolder("{\"name\":\"Bottom\",\"parentFolderId\":" + middle + "}");
+
+		for (long descendant : new long[]{middle, bottom}) {
+			mockMvc.perform(authorized(put("/api/folders/" + top)).contentType(MediaType.APPLICATION_JSON)
+							.content("{\"name\":\"Top\",\"parentFolderId\":" + descendant + "}"))
+					.andExpect(status().isBadRequest());
+		}
+
+		JsonNode tree = perform(authorized(get("/api/folders/tree"))).path("data");
+		assertEquals(1, tree.size());
+		assertEquals("Top", tree.get(0).path("name").asText());
+		assertEquals("Bottom", tree.get(0).path("subfolders").get(0).path("subfolders").get(0).path("name").asText());
+	}
+
+	private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+		return request.header("Authorization", "Bearer " + token);
+	}
+
+	private long createFolder(String json) throws Exception {
+		return perform(authorized(post("/api/folders")).contentType(MediaType.APPLICATION_JSON).content(json))
+				.path("data").path("id").asLong();
+	}
+
+	private JsonNode perform(MockHttpServletRequestBuilder request) throws Exception {
+		String body = mockMvc.perform(request).andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+}
@@ -0,0 +1,31 @@
+package com.notesapp.notes_app.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IfMatchTest {
+
+	@Test
+	void missingOrWildcardHeaderIsUnconditional() {
+		assertNull(IfMatch.expectedVersion(null));
+		assertNull(IfMatch.expectedVersion(" "));
+		assertNull(IfMatch.expectedVersion("*"));
+	}
+
+	@Test
+	void versionIsReadFromAllAcceptedForms() {
+		assertEquals(7L, IfMatch.expectedVersion("\"7\""));
+		assertEquals(7L, IfMatch.expectedVersion("7"));
+		assertEquals(7L, IfMatch.expectedVersion("\"note-42-7-3\""));
+	}
+
+	@Test
+	void otherValuesAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> IfMatch.expectedVersion("W/\"7\""));
+		assertThrows(IllegalArgumentException.class, () -> IfMatch.expectedVersion("\"user-1-7\""));
+	}
+
+}
@@ -0,0 +1,134 @@
+package com.notesapp.notes_app.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class ImportControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void importsNdjsonInChunksAndReportsBadLines() throws Exception {
+		String token = login("import-ndjson");
+		StringBuilder ndjson = new StringBuilder();
+		ndjson.append("{\"type\":\"folder\",\"id\":7,\"name\":\"Work\"}\n");
+		ndjson.append("{\"type\":\"folder\",\"id\":8,\"name\":\"Plans\",\"parentFolderId\":7}\n");
+		for (int i = 0; i < 1200; i++) {
+			ndjson.append("{\"type\":\"note\",\"title\":\"Note ").append(i).append("\",\"content\":\"Body ")
+					.append(i).append("\",\"folderId\":").append(i % 2 == 0 ? "8" : "null").append("}\n");
+		}
+		ndjson.append("not json\n");
+		ndjson.append("{\"type\":\"note\",\"title\":\" \"}\n");
+		ndjson.append("{\"type\":\"note\",\"title\":\"Orphan\",\"folderId\":99}\n");
+
+		List<JsonNode> lines = importLibrary(token, "ndjson", ndjson.toString().getBytes(StandardCharsets.UTF_8));
+
+		// Three chunks of at most 500 notes, one error per bad line
+		assertEquals(3, lines.stream().filter(line -> "progress".equals(line.path("type").asText())).count());
+		assertEquals(3, lines.stream().filter(line -> "error".equals(line.path("type").asText())).count());
+		JsonNode done = lines.get(lines.size() - 1);
+		assertEquals("done", done.path("type").asText());
+		assertEquals(2, done.path("folders").asInt());
+		assertEquals(1201, done.path("notes").asInt());
+		assertEquals(3, done.path("errors").asInt());
+
+		JsonNode plans = perform(token, get("/api/folders/tree")).path("data").get(0).path("subfolders").get(0);
+		assertEquals("Plans", plans.path("name").asText());
+		assertEquals(600, plans.path("noteCount").asLong());
+	}
+
+	@Test
+	void importsMarkdownZipIntoFolders() throws Exception {
+		String token = login("import-zip");
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ZipOutputStream zip = new ZipOutputStream(bytes, StandardCharsets.UTF_8)) {
+			zip.putNextEntry(new ZipEntry("Work/"));
+			addFile(zip, "Work/Plans/Budget.md", "Numbers");
+			addFile(zip, "Ideas.markdown", "Top level");
+			addFile(zip, "Work/photo.png", "not text");
+			addFile(zip, "Work/.DS_Store", "hidden");
+			addFile(zip, "__MACOSX/Work/._Budget.md", "metadata");
+		}
+
+		List<JsonNode> lines = importLibrary(token, "zip", bytes.toByteArray());
+
+		assertEquals("Work/photo.png", lines.get(0).path("item").asText());
+		JsonNode done = lines.get(lines.size() - 1);
+		assertEquals(2, done.path("folders").asInt());
+		assertEquals(2, done.path("notes").asInt());
+		assertEquals(1, done.path("errors").asInt());
+
+		JsonNode work = perform(token, get("/api/folders/tree")).path("data").get(0);
+		assertEquals("Work", work.path("name").asText());
+		assertEquals("Plans", work.path("subfolders").get(0).path("name").asText());
+		assertEquals(1, work.path("subtreeNoteCount").asLong());
+	}
+
+	private static void addFile(ZipOutputStream zip, String name, String content) throws Exception {
+		zip.putNextEntry(new ZipEntry(name));
+		zip.write(content.getBytes(StandardCharsets.UTF_8));
+		zip.closeEntry();
+	}
+
+	private List<JsonNode> importLibrary(String token, String format, byte[] body) throws Exception {
+		MvcResult started = mockMvc.perform(post("/api/import?format=" + format)
+						.header("Authorization", "Bearer " + token)
+						.contentType(MediaType.APPLICATION_OCTET_STREAM)
+						.content(body))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String response = mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn()
+				.getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+		List<JsonNode> lines = new ArrayList<>();
+		for (String line : response.split("\n")) {
+			lines.add(objectMapper.readTree(line));
+		}
+		return lines;
+	}
+
+	private String login(String username) throws Exception {
+		String credentials = "{\"username\":\"" + username + "\",\"password\":\"import-password\"}";
+		mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON).content(credentials))
+				.andExpect(status().isOk());
+		String body = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(credentials))
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body).path("data").path("accessToken").asText();
+	}
+
+	private JsonNode perform(String token, MockHttpServletRequestBuilder request) throws Exception {
+		String body = mockMvc.perform(request.header("Authorization", "Bearer " + token)).andReturn()
+				.getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+}
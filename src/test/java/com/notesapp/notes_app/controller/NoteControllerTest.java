@@ -0,0 +1,139 @@
+package com.notesapp.notes_app.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notesapp.notes_app.repository.UserRepository;
+import com.notesapp.notes_app.service.CollectionVersionService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class NoteControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private CollectionVersionService collectionVersionService;
+
+	private String token;
+	private String otherToken;
+
+	@BeforeAll
+	void seed() throws Exception {
+		token = login("note-owner");
+		otherToken = login("note-other");
+	}
+
+	@Test
+	void updateWithForeignOrMissingFolderLeavesNoteUnchanged() throws Exception {
+		long folderId = create(token, "/api/folders", "{\"name\":\"Own\"}");
+		long foreignFolderId = create(otherToken, "/api/folders", "{\"name\":\"Foreign\"}");
+		long noteId = create(token, "/api/notes",
+				"{\"title\":\"Original\",\"content\":\"Original content\",\"folderId\":" + folderId + "}");
+		JsonNode before = perform(token, get("/api/notes/" + noteId)).path("data");
+		Long userId = userRepository.findByUsername("note-owner").orElseThrow().getId();
+		long collectionVersion = collectionVersionService.getCollectionVersion(userId);
+
+		for (long targetFolderId : new long[]{foreignFolderId, Long.MAX_VALUE}) {
+			mockMvc.perform(authorized(token, put("/api/notes/" + noteId)).contentType(MediaType.APPLICATION_JSON)
+							.content("{\"title\":\"Changed\",\"content\":\"Changed content\",\"folderId\":"
+									+ targetFolderId + "}"))
+					.andExpect(status().isBadRequest());
+		}
+
+		JsonNode after = perform(token, get("/api/notes/" + noteId)).path("data");
+		assertEquals("Original", after.path("title").asText());
+		assertEquals("Original content", after.path("content").asText());
+		assertEquals(folderId, after.path("folderId").asLong());
+		assertEquals(before.path("version").asLong(), after.path("version").asLong());
+		assertEquals(collectionVersion, collectionVersionService.getCollectionVersion(userId));
+	}
+
+	@Test
+	void searchAndQuickOpenSeeCommittedWrites() throws Exception {
+		// Loads the quick-open index, later lookups only see what the writes apply to it
+		assertEquals(0, perform(token, get("/api/notes/quick-open?prefix=quokka")).path("data").size());
+		long noteId = create(token, "/api/notes", "{\"title\":\"Quokka sighting\",\"content\":\"On the island\"}");
+		mockMvc.perform(authorized(token, post("/api/notes/batch")).contentType(MediaType.APPLICATION_JSON)
+						.content("{\"operations\":[{\"type\":\"CREATE\",\"title\":\"Quokka diet\",\"content\":\"Leaves\"},"
+								+ "{\"type\":\"CREATE\",\"title\":\"Quokka habitat\",\"content\":\"Scrubland\"}]}"))
+				.andExpect(status().isOk());
+		assertEquals(3, perform(token, get("/api/notes/search?q=quokka")).path("data").path("totalHits").asLong());
+
+		mockMvc.perform(authorized(token, put("/api/notes/" + noteId)).contentType(MediaType.APPLICATION_JSON)
+						.content("{\"title\":\"Wombat sighting\",\"content\":\"On the island\"}"))
+				.andExpect(status().isOk());
+		assertEquals(2, perform(token, get("/api/notes/search?q=quokka")).path("data").path("totalHits").asLong());
+		assertEquals(noteId, perform(token, get("/api/notes/search?q=wombat"))
+				.path("data").path("results").path(0).path("id").asLong());
+		assertEquals(0, perform(otherToken, get("/api/notes/search?q=wombat")).path("data").path("totalHits").asLong());
+
+		long folderId = create(token, "/api/folders", "{\"name\":\"Wombat burrows\"}");
+		JsonNode matches = perform(token, get("/api/notes/quick-open?prefix=wombat")).path("data");
+		assertEquals(2, matches.size());
+		assertEquals(folderId, matches.path(0).path("id").asLong());
+		assertEquals(noteId, matches.path(1).path("id").asLong());
+		assertEquals(2, perform(token, get("/api/notes/quick-open?prefix=quokka")).path("data").size());
+	}
+
+	@Test
+	void rejectsSearchPagesPastTheRankableHitCount() throws Exception {
+		// (page + 1) * size is exactly Integer.MAX_VALUE, the deepest page that can be ranked
+		JsonNode deepest = perform(token, get("/api/notes/search?q=anything&size=1&page=" + (Integer.MAX_VALUE - 1)));
+		assertTrue(deepest.path("success").asBoolean());
+		assertEquals(0, deepest.path("data").path("results").size());
+
+		mockMvc.perform(authorized(token, get("/api/notes/search?q=anything&size=1&page=" + Integer.MAX_VALUE)))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(authorized(token, get("/api/notes/search?q=anything&size=2&page=" + (Integer.MAX_VALUE / 2))))
+				.andExpect(status().isBadRequest());
+	}
+
+	private String login(String username) throws Exception {
+		String credentials = "{\"username\":\"" + username + "\",\"password\":\"note-password\"}";
+		mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON).content(credentials))
+				.andExpect(status().isOk());
+		String body = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(credentials))
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body).path("data").path("accessToken").asText();
+	}
+
+	private long create(String token, String path, String json) throws Exception {
+		return perform(token, post(path).contentType(MediaType.APPLICATION_JSON).content(json))
+				.path("data").path("id").asLong();
+	}
+
+	private MockHttpServletRequestBuilder authorized(String token, MockHttpServletRequestBuilder request) {
+		return request.header("Authorization", "Bearer " + token);
+	}
+
+	private JsonNode perform(String token, MockHttpServletRequestBuilder request) throws Exception {
+		String body = mockMvc.perform(authorized(token, request)).andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+}
@@ -0,0 +1,174 @@
+package com.notesapp.notes_app.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.notesapp.notes_app.metrics.SqlStatementAssertions.entityLoadsAtMost;
+import static com.notesapp.notes_app.metrics.SqlStatementAssertions.noStatementRepeatedMoreThan;
+import static com.notesapp.notes_app.metrics.SqlStatementAssertions.statementsAtMost;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of SQL statements the main read and write paths execute, on an in-memory database.
+ * Listing counts include the collection version read for the entity tag.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryCountTest {
+
+	private static final int NOTES_PER_FOLDER = 5;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private String token;
+	private long parentFolderId;
+	private final List<Long> childFolderIds = new ArrayList<>();
+	private final List<Long> noteIds = new ArrayList<>();
+
+	@BeforeAll
+	void seed() throws Exception {
+		String credentials = "{\"username\":\"query-count\",\"password\":\"query-count-password\"}";
+		mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON).content(credentials))
+				.andExpect(status().isOk());
+		token = perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(credentials))
+				.path("data").path("accessToken").asText();
+
+		parentFolderId = createFolder("{\"name\":\"Parent\"}");
+		for (int f = 0; f < 3; f++) {
+			childFolderIds.add(createFolder("{\"name\":\"Child " + f + "\",\"parentFolderId\":" + parentFolderId + "}"));
+		}
+		// A deeper level, so that loading a folder's parent chain would show up in the counts
+		for (int f = 0; f < 3; f++) {
+			createFolder("{\"name\":\"Grandchild " + f + "\",\"parentFolderId\":" + childFolderIds.get(0) + "}");
+		}
+		for (long folderId : childFolderIds) {
+			for (int n = 0; n < NOTES_PER_FOLDER; n++) {
+				JsonNode note = perform(authorized(post("/api/notes")).contentType(MediaType.APPLICATION_JSON)
+						.content("{\"title\":\"Note " + n + "\",\"content\":\"Body " + n + "\",\"folderId\":" + folderId + "}"));
+				noteIds.add(note.path("data").path("id").asLong());
+			}
+		}
+	}
+
+	@Test
+	void rootFolders() throws Exception {
+		mockMvc.perform(authorized(get("/api/folders/root")))
+				.andExpect(status().isOk())
+				.andExpect(statementsAtMost(2))
+				.andExpect(entityLoadsAtMost(1));
+	}
+
+	@Test
+	void subfolders() throws Exception {
+		mockMvc.perform(authorized(get("/api/folders/parent/" + childFolderIds.get(0))))
+				.andExpect(status().isOk())
+				.andExpect(statementsAtMost(3))
+				.andExpect(entityLoadsAtMost(5));
+	}
+
+	@Test
+	void folderById() throws Exception {
+		mockMvc.perform(authorized(get("/api/folders/" + childFolderIds.get(0))))
+				.andExpect(status().isOk())
+				.andExpect(statementsAtMost(2))
+				.andExpect(entityLoadsAtMost(2));
+	}
+
+	@Test
+	void folderTree() throws Exception {
+		mockMvc.perform(authorized(get("/api/folders/tree?includeNotes=true")))
+				.andExpect(status().isOk())
+				.andExpect(statementsAtMost(3));
+	}
+
+	@Test
+	void noteById() throws Exception {
+		mockMvc.perform(authorized(get("/api/notes/" + noteIds.get(0))))
+				.andExpect(status().isOk())
+				.andExpect(statementsAtMost(2))
+				.andExpect(entityLoadsAtMost(3));
+	}
+
+	@Test
+	void notesAcrossFolders() throws Exception {
+		mockMvc.perform(authorized(get("/api/notes?size=50")))
+				.andExpect(status().isOk())
+				.andExpect(statementsAtMost(2))
+				.andExpect(noStatementRepeatedMoreThan(1));
+	}
+
+	@Test
+	void notesInFolder() throws Exception {
+		mockMvc.perform(authorized(get("/api/notes/folder/" + childFolderIds.get(1))))
+				.andExpect(status().isOk())
+				.andExpect(statementsAtMost(3));
+	}
+
+	@Test
+	void syncChanges() throws Exception {
+		mockMvc.perform(authorized(get("/api/sync/changes")))
+				.andExpect(status().isOk())
+				.andExpect(statementsAtMost(3))
+				.andExpect(noStatementRepeatedMoreThan(1));
+	}
+
+	@Test
+	void updateNote() throws Exception {
+		mockMvc.perform(authorized(put("/api/notes/" + noteIds.get(1))).contentType(MediaType.APPLICATION_JSON)
+						.content("{\"title\":\"Renamed\",\"content\":\"New body\",\"folderId\":" + childFolderIds.get(0) + "}"))
+				.andExpect(status().isOk())
+				// Includes reading the committed note back for the search index
+				.andExpect(statementsAtMost(7));
+	}
+
+	@Test
+	void batchCreateAcrossFolders() throws Exception {
+		StringBuilder operations = new StringBuilder();
+		for (int n = 0; n < 12; n++) {
+			operations.append(n == 0 ? "" : ",").append("{\"type\":\"CREATE\",\"title\":\"Batch ").append(n)
+					.append("\",\"content\":\"Body\",\"folderId\":").append(childFolderIds.get(n % childFolderIds.size()))
+					.append("}");
+		}
+		mockMvc.perform(authorized(post("/api/notes/batch")).contentType(MediaType.APPLICATION_JSON)
+						.content("{\"operations\":[" + operations + "]}"))
+				.andExpect(status().isOk())
+				// Includes reading the committed notes back for the search index, once for the whole batch
+				.andExpect(statementsAtMost(13));
+	}
+
+	private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+		return request.header("Authorization", "Bearer " + token);
+	}
+
+	private long createFolder(String json) throws Exception {
+		return perform(authorized(post("/api/folders")).contentType(MediaType.APPLICATION_JSON).content(json))
+				.path("data").path("id").asLong();
+	}
+
+	private JsonNode perform(MockHttpServletRequestBuilder request) throws Exception {
+		String body = mockMvc.perform(request).andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+}
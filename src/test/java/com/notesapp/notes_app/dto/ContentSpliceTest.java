@@ -0,0 +1,35 @@
+package com.notesapp.notes_app.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ContentSpliceTest {
+
+	@Test
+	void splicesApplyInOrder() {
+		List<ContentSplice> splices = List.of(
+				new ContentSplice(6, 5, "there"),
+				new ContentSplice(11, 0, ", again"),
+				new ContentSplice(0, 0, "> "));
+
+		assertEquals("> Hello there, again!", ContentSplice.applyAll("Hello world!", splices));
+	}
+
+	@Test
+	void nullContentIsTreatedAsEmpty() {
+		assertEquals("First line", ContentSplice.applyAll(null, List.of(new ContentSplice(0, 0, "First line"))));
+	}
+
+	@Test
+	void spliceOutsideContentIsRejected() {
+		assertThrows(IllegalArgumentException.class,
+				() -> ContentSplice.applyAll("abc", List.of(new ContentSplice(2, 2, null))));
+		assertThrows(IllegalArgumentException.class,
+				() -> ContentSplice.applyAll("abc", List.of(new ContentSplice(-1, 0, "x"))));
+	}
+
+}
@@ -0,0 +1,30 @@
+package com.notesapp.notes_app.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NoteCursorTest {
+
+	@Test
+	void encodedCursorRoundTrips() {
+		NoteCursor cursor = new NoteCursor(LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123456000), 42L);
+		assertEquals(cursor, NoteCursor.decode(cursor.encode()));
+	}
+
+	@Test
+	void missingCursorStartsAtFirstPage() {
+		assertEquals(NoteCursor.START, NoteCursor.decode(null));
+		assertEquals(NoteCursor.START, NoteCursor.decode(""));
+	}
+
+	@Test
+	void malformedCursorIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> NoteCursor.decode("not a cursor"));
+		assertThrows(IllegalArgumentException.class, () -> NoteCursor.decode("bm90LWEtY3Vyc29y"));
+	}
+
+}
@@ -0,0 +1,33 @@
+package com.notesapp.notes_app.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SyncCursorTest {
+
+	@Test
+	void encodedCursorRoundTrips() {
+		SyncCursor cursor = new SyncCursor(17, SyncCursor.KIND_NOTE, 42);
+		assertEquals(cursor, SyncCursor.decode(cursor.encode()));
+		assertEquals(SyncCursor.START, SyncCursor.decode(null));
+	}
+
+	@Test
+	void idBoundFollowsKindOrder() {
+		SyncCursor cursor = new SyncCursor(17, SyncCursor.KIND_NOTE, 42);
+
+		// Folders of the same change sequence were all delivered, deletions not yet
+		assertEquals(Long.MAX_VALUE, cursor.idAfter(SyncCursor.KIND_FOLDER));
+		assertEquals(42, cursor.idAfter(SyncCursor.KIND_NOTE));
+		assertEquals(-1, cursor.idAfter(SyncCursor.KIND_DELETION));
+	}
+
+	@Test
+	void malformedCursorIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> SyncCursor.decode("not a cursor"));
+		assertThrows(IllegalArgumentException.class, () -> SyncCursor.decode("MXwy"));
+	}
+
+}
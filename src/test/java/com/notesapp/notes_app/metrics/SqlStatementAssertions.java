@@ -0,0 +1,92 @@
+package com.notesapp.notes_app.metrics;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Pins the SQL cost of requests in tests, e.g.
+ * {@code mockMvc.perform(get("/api/folders/root")).andExpect(statementsAtMost(2))},
+ * or of any code with {@link #countStatements(ThrowingRunnable)}
+ */
+public final class SqlStatementAssertions {
+
+	private SqlStatementAssertions() {
+	}
+
+	@FunctionalInterface
+	public interface ThrowingRunnable {
+		void run() throws Exception;
+	}
+
+	/**
+	 * Expect the request to have executed at most the given number of SQL statements
+	 */
+	public static ResultMatcher statementsAtMost(int max) {
+		return result -> {
+			RequestQueryStatistics statistics = statistics(result);
+			if (statistics.getStatements() > max) {
+				fail(describe(result) + " executed " + statistics.getStatements()
+						+ " SQL statements, expected at most " + max + mostRepeated(statistics));
+			}
+		};
+	}
+
+	/**
+	 * Expect the request to have loaded at most the given number of entities, associations included
+	 */
+	public static ResultMatcher entityLoadsAtMost(int max) {
+		return result -> {
+			RequestQueryStatistics statistics = statistics(result);
+			if (statistics.getEntityLoads() > max) {
+				fail(describe(result) + " loaded " + statistics.getEntityLoads() + " entities, expected at most " + max);
+			}
+		};
+	}
+
+	/**
+	 * Expect no SQL statement to have been executed more than the given number of times by the request
+	 */
+	public static ResultMatcher noStatementRepeatedMoreThan(int times) {
+		return result -> {
+			Map.Entry<String, Integer> mostRepeated = statistics(result).getMostRepeatedStatement();
+			if (mostRepeated != null && mostRepeated.getValue() > times) {
+				fail(describe(result) + " executed the same statement " + mostRepeated.getValue()
+						+ " times, expected at most " + times + ": " + mostRepeated.getKey());
+			}
+		};
+	}
+
+	/**
+	 * Count the SQL statements and entity loads of code running on the current thread
+	 */
+	public static RequestQueryStatistics countStatements(ThrowingRunnable code) throws Exception {
+		RequestQueryStatistics statistics = RequestQueryStatistics.begin();
+		try {
+			code.run();
+		} finally {
+			RequestQueryStatistics.end();
+		}
+		return statistics;
+	}
+
+	private static RequestQueryStatistics statistics(MvcResult result) {
+		Object statistics = result.getRequest().getAttribute(RequestQueryStatistics.REQUEST_ATTRIBUTE);
+		assertNotNull(statistics, "No SQL statistics recorded, is RequestQueryMetricsFilter in the MockMvc filter chain?");
+		return (RequestQueryStatistics) statistics;
+	}
+
+	private static String describe(MvcResult result) {
+		return result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+	}
+
+	private static String mostRepeated(RequestQueryStatistics statistics) {
+		Map.Entry<String, Integer> mostRepeated = statistics.getMostRepeatedStatement();
+		return mostRepeated == null || mostRepeated.getValue() < 2 ? ""
+				: ", most repeated (" + mostRepeated.getValue() + " times): " + mostRepeated.getKey();
+	}
+}
@@ -0,0 +1,87 @@
+package com.notesapp.notes_app.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static com.notesapp.notes_app.metrics.SqlStatementAssertions.countStatements;
+import static com.notesapp.notes_app.metrics.SqlStatementAssertions.noStatementRepeatedMoreThan;
+import static com.notesapp.notes_app.metrics.SqlStatementAssertions.statementsAtMost;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StatementCountingDataSourceTest {
+
+	private final DataSource dataSource = countingDataSource();
+
+	@Test
+	void countsExecutionsAndRepeatsOfTheCurrentRequest() throws Exception {
+		RequestQueryStatistics statistics = countStatements(() -> {
+			try (Connection connection = dataSource.getConnection()) {
+				for (long id = 1; id <= 3; id++) {
+					PreparedStatement select = connection.prepareStatement("select * from notes where folder_id = ?");
+					select.setLong(1, id);
+					select.executeQuery();
+				}
+				PreparedStatement insert = connection.prepareStatement("insert into folders values (?)");
+				insert.addBatch();
+				insert.addBatch();
+				insert.executeBatch();
+				connection.createStatement().execute("select 1");
+			}
+		});
+
+		assertEquals(5, statistics.getStatements());
+		assertEquals("select * from notes where folder_id = ?", statistics.getMostRepeatedStatement().getKey());
+		assertEquals(3, statistics.getMostRepeatedStatement().getValue());
+	}
+
+	@Test
+	void ignoresStatementsOutsideARequest() throws SQLException {
+		dataSource.getConnection().prepareStatement("select 1").executeQuery();
+		assertNull(RequestQueryStatistics.current());
+	}
+
+	@Test
+	void matchersFailRequestsOverTheirBudget() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/folders/root");
+		RequestQueryStatistics statistics = countStatements(() -> {
+			try (Connection connection = dataSource.getConnection()) {
+				for (int i = 0; i < 3; i++) {
+					connection.prepareStatement("select * from folders where id = ?").executeQuery();
+				}
+			}
+		});
+		request.setAttribute(RequestQueryStatistics.REQUEST_ATTRIBUTE, statistics);
+		MvcResult result = mock(MvcResult.class);
+		when(result.getRequest()).thenReturn(request);
+
+		assertDoesNotThrow(() -> statementsAtMost(3).match(result));
+		assertThrows(AssertionError.class, () -> statementsAtMost(2).match(result));
+		assertThrows(AssertionError.class, () -> noStatementRepeatedMoreThan(2).match(result));
+	}
+
+	private static DataSource countingDataSource() {
+		try {
+			DataSource target = mock(DataSource.class);
+			Connection connection = mock(Connection.class);
+			when(target.getConnection()).thenReturn(connection);
+			when(connection.prepareStatement(anyString())).thenAnswer(invocation -> mock(PreparedStatement.class));
+			when(connection.createStatement()).thenAnswer(invocation -> mock(Statement.class));
+			return new StatementCountingDataSource(target);
+		} catch (SQLException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
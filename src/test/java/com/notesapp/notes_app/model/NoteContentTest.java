@@ -0,0 +1,49 @@
+package com.notesapp.notes_app.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NoteContentTest {
+
+	@Test
+	void smallContentIsStoredAsIs() {
+		NoteContent content = new NoteContent();
+		content.setText("Short note");
+
+		assertFalse(content.isCompressed());
+		assertEquals("Short note", content.getText());
+	}
+
+	@Test
+	void largeContentIsCompressedAndRoundTrips() {
+		String text = "Ünïcode lines of a long note.\n".repeat(1000);
+		NoteContent content = new NoteContent();
+		content.setText(text);
+
+		assertTrue(content.isCompressed());
+		assertTrue(content.getData().length < content.getOriginalLength());
+		assertEquals(text, content.getText());
+	}
+
+	@Test
+	void nullContentStaysNull() {
+		NoteContent content = new NoteContent();
+		content.setText(null);
+
+		assertNull(content.getText());
+	}
+
+	@Test
+	void noteKeepsExcerptOfContent() {
+		Note note = new Note();
+		note.setContent("x".repeat(500));
+
+		assertEquals(Note.EXCERPT_LENGTH, note.getExcerpt().length());
+		assertEquals(500, note.getContent().length());
+	}
+
+}
@@ -0,0 +1,47 @@
+package com.notesapp.notes_app.security;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtUtilTest {
+
+	private JwtUtil jwtUtil;
+
+	@BeforeEach
+	void setUp() {
+		jwtUtil = new JwtUtil();
+		ReflectionTestUtils.setField(jwtUtil, "maxCachedTokens", 10);
+	}
+
+	@Test
+	void repeatedValidationIsServedFromCache() {
+		String token = jwtUtil.generateToken(42L, "alice");
+
+		Claims first = jwtUtil.validateAndGetClaims(token).orElseThrow();
+		Claims second = jwtUtil.validateAndGetClaims(token).orElseThrow();
+
+		assertEquals("alice", second.getSubject());
+		assertEquals(42L, second.get(JwtUtil.USER_ID_CLAIM, Long.class));
+		assertEquals(first, second);
+		assertEquals(1, jwtUtil.getCacheHits());
+		assertEquals(1, jwtUtil.getCacheMisses());
+		assertEquals(1, jwtUtil.getCacheSize());
+	}
+
+	@Test
+	void tamperedTokensAreRejectedAndNotCached() {
+		String token = jwtUtil.generateToken(42L, "alice");
+		String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+		assertFalse(jwtUtil.validateToken(tampered));
+		assertTrue(jwtUtil.validateToken(token));
+		assertEquals(1, jwtUtil.getCacheSize());
+	}
+
+}
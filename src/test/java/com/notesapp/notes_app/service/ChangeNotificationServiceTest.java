@@ -0,0 +1,87 @@
+package com.notesapp.notes_app.service;
+
+import com.notesapp.notes_app.dto.ChangeNotification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeNotificationServiceTest {
+
+	private final CountDownLatch unstall = new CountDownLatch(1);
+	// The "connected" comment and one change
+	private final CountDownLatch delivered = new CountDownLatch(2);
+	private volatile boolean stallNewEmitters;
+	private ChangeNotificationService service;
+
+	@BeforeEach
+	void setUp() {
+		service = new ChangeNotificationService() {
+			@Override
+			SseEmitter createEmitter(long timeoutMillis) {
+				return stallNewEmitters ? new StalledEmitter() : new DeliveringEmitter();
+			}
+		};
+		ReflectionTestUtils.setField(service, "maxConnections", 100);
+		ReflectionTestUtils.setField(service, "maxConnectionsPerUser", 10);
+		ReflectionTestUtils.setField(service, "queueCapacity", 4);
+		ReflectionTestUtils.setField(service, "timeoutMillis", 60_000L);
+		ReflectionTestUtils.setField(service, "writeTimeoutMillis", 200L);
+	}
+
+	@AfterEach
+	void tearDown() {
+		unstall.countDown();
+		service.close();
+	}
+
+	@Test
+	void stalledClientsNeitherBlockOthersNorStayConnected() throws Exception {
+		// More stalled clients than a fixed sender pool would have threads
+		stallNewEmitters = true;
+		for (long userId = 100; userId < 120; userId++) {
+			service.subscribe(userId);
+			service.onChange(change(userId));
+		}
+		stallNewEmitters = false;
+		service.subscribe(2L);
+		service.onChange(change(2L));
+		assertTrue(delivered.await(5, TimeUnit.SECONDS));
+
+		// Past the write timeout the next heartbeat disconnects the stalled clients
+		Thread.sleep(300);
+		service.sendHeartbeats();
+		assertEquals(20, service.getDroppedConnections());
+		assertEquals(1, service.getConnectionCount());
+	}
+
+	private static ChangeNotification change(long userId) {
+		return new ChangeNotification(userId, ChangeNotification.TYPE_NOTE, 1L, 1L, 1L, false);
+	}
+
+	// Blocks every write, as a client that stopped reading does once its TCP window is full
+	private final class StalledEmitter extends SseEmitter {
+		@Override
+		public void send(SseEventBuilder builder) {
+			try {
+				unstall.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private final class DeliveringEmitter extends SseEmitter {
+		@Override
+		public void send(SseEventBuilder builder) {
+			delivered.countDown();
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package com.notesapp.notes_app.service;
+
+import com.notesapp.notes_app.model.Folder;
+import com.notesapp.notes_app.model.Note;
+import com.notesapp.notes_app.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NoteSearchServiceTest {
+
+	@TempDir
+	Path indexDir;
+
+	private NoteSearchService searchService;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		searchService = new NoteSearchService();
+		ReflectionTestUtils.setField(searchService, "indexDir", indexDir.toString());
+		searchService.open();
+
+		searchService.index(note(1L, 1L, null, "Grocery list", "milk, eggs and fresh bread"));
+		searchService.index(note(2L, 1L, 10L, "Bread recipe", "sourdough bread needs a starter"));
+		searchService.index(note(3L, 2L, null, "Bread", "someone else's bread"));
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		searchService.close();
+	}
+
+	@Test
+	void searchesOnlyTheOwnersNotesRankingTitleMatchesFirst() throws Exception {
+		NoteSearchService.SearchHits hits = searchService.search(1L, "bread", null, 0, 10);
+		assertEquals(2, hits.totalHits());
+		assertEquals(List.of(2L, 1L), hits.noteIds());
+	}
+
+	@Test
+	void supportsPhrasesFoldersAndRemoval() throws Exception {
+		assertEquals(List.of(1L), searchService.search(1L, "\"fresh bread\"", null, 0, 10).noteIds());
+		assertEquals(List.of(2L), searchService.search(1L, "bread", 10L, 0, 10).noteIds());
+
+		searchService.remove(List.of(2L));
+		assertEquals(List.of(1L), searchService.search(1L, "bread", null, 0, 10).noteIds());
+	}
+
+	@Test
+	void requiresRebuildUnlessClosedWithEverythingCommitted() throws Exception {
+		searchService.close();
+		assertFalse(reopen());
+
+		searchService.markStale();
+		searchService.close();
+		assertTrue(reopen());
+	}
+
+	private boolean reopen() throws Exception {
+		searchService = new NoteSearchService();
+		ReflectionTestUtils.setField(searchService, "indexDir", indexDir.toString());
+		searchService.open();
+		return (boolean) ReflectionTestUtils.getField(searchService, "rebuildRequired");
+	}
+
+	private Note note(Long id, Long userId, Long folderId, String title, String content) {
+		User user = new User();
+		user.setId(userId);
+		Note note = new Note();
+		note.setId(id);
+		note.setUser(user);
+		note.setTitle(title);
+		note.setContent(content);
+		if (folderId != null) {
+			Folder folder = new Folder();
+			folder.setId(folderId);
+			note.setFolder(folder);
+		}
+		return note;
+	}
+
+}
@@ -0,0 +1,111 @@
+package com.notesapp.notes_app.service;
+
+import com.notesapp.notes_app.dto.QuickOpenEntry;
+import com.notesapp.notes_app.repository.FolderRepository;
+import com.notesapp.notes_app.repository.NoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QuickOpenServiceTest {
+
+	private final NoteRepository noteRepository = mock(NoteRepository.class);
+	private final FolderRepository folderRepository = mock(FolderRepository.class);
+	private QuickOpenService quickOpenService;
+
+	@BeforeEach
+	void setUp() {
+		quickOpenService = new QuickOpenService();
+		ReflectionTestUtils.setField(quickOpenService, "noteRepository", noteRepository);
+		ReflectionTestUtils.setField(quickOpenService, "folderRepository", folderRepository);
+		ReflectionTestUtils.setField(quickOpenService, "maxEntriesPerUser", 100);
+		ReflectionTestUtils.setField(quickOpenService, "maxUsers", 10);
+
+		when(noteRepository.findQuickOpenEntriesByUserId(eq(1L), any(Limit.class))).thenReturn(List.of(
+				new QuickOpenEntry(QuickOpenEntry.TYPE_NOTE, 1L, "Café notes"),
+				new QuickOpenEntry(QuickOpenEntry.TYPE_NOTE, 2L, "Meeting  minutes"),
+				new QuickOpenEntry(QuickOpenEntry.TYPE_NOTE, 3L, "cafeteria menu")));
+		when(folderRepository.findQuickOpenEntriesByUserId(eq(1L), any(Limit.class))).thenReturn(List.of(
+				new QuickOpenEntry(QuickOpenEntry.TYPE_FOLDER, 7L, "Cafe")));
+	}
+
+	@Test
+	void matchesNormalizedPrefixesAndLoadsOnlyOnce() {
+		assertEquals(List.of(7L, 1L, 3L), ids(quickOpenService.findByPrefix(1L, "CAFE", 10)));
+		assertEquals(List.of(2L), ids(quickOpenService.findByPrefix(1L, "meeting m", 10)));
+		assertEquals(List.of(7L), ids(quickOpenService.findByPrefix(1L, "caf", 1)));
+
+		verify(noteRepository, times(1)).findQuickOpenEntriesByUserId(eq(1L), any(Limit.class));
+	}
+
+	@Test
+	void writesUpdateALoadedIndex() {
+		quickOpenService.findByPrefix(1L, "", 10);
+
+		quickOpenService.putNote(1L, 2L, "Cafe budget");
+		quickOpenService.removeNotes(1L, List.of(3L));
+		quickOpenService.removeFolder(1L, 7L);
+
+		assertEquals(List.of(2L, 1L), ids(quickOpenService.findByPrefix(1L, "cafe", 10)));
+		assertEquals(List.of(), ids(quickOpenService.findByPrefix(1L, "meeting", 10)));
+	}
+
+	@Test
+	void writesOfOtherUsersDuringALoadDoNotPreventCaching() {
+		when(noteRepository.findQuickOpenEntriesByUserId(eq(2L), any(Limit.class))).thenAnswer(invocation -> {
+			quickOpenService.putNote(3L, 30L, "Another user's note");
+			return List.of(new QuickOpenEntry(QuickOpenEntry.TYPE_NOTE, 20L, "Draft"));
+		});
+
+		quickOpenService.findByPrefix(2L, "dr", 10);
+		quickOpenService.findByPrefix(2L, "dr", 10);
+
+		verify(noteRepository, times(1)).findQuickOpenEntriesByUserId(eq(2L), any(Limit.class));
+	}
+
+	@Test
+	void ownWritesDuringALoadPreventCaching() {
+		when(noteRepository.findQuickOpenEntriesByUserId(eq(2L), any(Limit.class))).thenAnswer(invocation -> {
+			quickOpenService.putNote(2L, 21L, "Written meanwhile");
+			return List.of(new QuickOpenEntry(QuickOpenEntry.TYPE_NOTE, 20L, "Draft"));
+		});
+
+		quickOpenService.findByPrefix(2L, "dr", 10);
+		quickOpenService.findByPrefix(2L, "dr", 10);
+
+		verify(noteRepository, times(2)).findQuickOpenEntriesByUserId(eq(2L), any(Limit.class));
+	}
+
+	@Test
+	void loadsBelowTheBoundSoNewNotesDoNotDropTheIndex() {
+		quickOpenService.findByPrefix(1L, "", 10);
+		verify(noteRepository).findQuickOpenEntriesByUserId(1L, Limit.of(90));
+
+		// 4 loaded entries, room for 96 more before the bound of 100 is passed
+		for (long id = 100; id < 196; id++) {
+			quickOpenService.putNote(1L, id, "New note " + id);
+		}
+		quickOpenService.findByPrefix(1L, "new", 10);
+		verify(noteRepository, times(1)).findQuickOpenEntriesByUserId(eq(1L), any(Limit.class));
+
+		quickOpenService.putNote(1L, 196L, "One too many");
+		quickOpenService.findByPrefix(1L, "new", 10);
+		verify(noteRepository, times(2)).findQuickOpenEntriesByUserId(eq(1L), any(Limit.class));
+	}
+
+	private List<Long> ids(List<QuickOpenEntry> entries) {
+		return entries.stream().map(QuickOpenEntry::getId).toList();
+	}
+
+}
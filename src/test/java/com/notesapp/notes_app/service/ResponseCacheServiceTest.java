@@ -0,0 +1,92 @@
+package com.notesapp.notes_app.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notesapp.notes_app.dto.ApiResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResponseCacheServiceTest {
+
+	private ResponseCacheService responseCacheService;
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() {
+		responseCacheService = new ResponseCacheService();
+		ReflectionTestUtils.setField(responseCacheService, "objectMapper", new ObjectMapper());
+		ReflectionTestUtils.setField(responseCacheService, "enabled", true);
+		ReflectionTestUtils.setField(responseCacheService, "maxBytes", 1024L);
+		ReflectionTestUtils.setField(responseCacheService, "maxEntryBytes", 512);
+		ReflectionTestUtils.setField(responseCacheService, "ttlSeconds", 60L);
+	}
+
+	@Test
+	void servesSerializedBytesUntilTheVersionChanges() {
+		byte[] first = body(responseCacheService.getOrLoad(1L, 5, "folders/root", loader("a")));
+		byte[] second = body(responseCacheService.getOrLoad(1L, 5, "folders/root", loader("b")));
+		assertArrayEquals(first, second);
+		assertEquals(1, loads.get());
+		assertEquals(1, responseCacheService.getHits());
+
+		byte[] afterWrite = body(responseCacheService.getOrLoad(1L, 6, "folders/root", loader("c")));
+		assertEquals("{\"success\":true,\"message\":\"ok\",\"data\":[\"c\"],\"errors\":[]}",
+				new String(afterWrite, StandardCharsets.UTF_8));
+		assertEquals(2, responseCacheService.getMisses());
+	}
+
+	@Test
+	void evictedUserIsReloaded() {
+		responseCacheService.getOrLoad(1L, 5, "folders/root", loader("a"));
+		responseCacheService.evict(1L);
+		responseCacheService.getOrLoad(1L, 5, "folders/root", loader("a"));
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void errorsAreNotCached() {
+		Supplier<ResponseEntity<?>> notFound = () -> {
+			loads.incrementAndGet();
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error("Folder not found"));
+		};
+		responseCacheService.getOrLoad(1L, 5, "notes/folder/9", notFound);
+		ResponseEntity<?> response = responseCacheService.getOrLoad(1L, 5, "notes/folder/9", notFound);
+		assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedUsersOverTheSizeBound() {
+		String large = "x".repeat(400);
+		responseCacheService.getOrLoad(1L, 1, "folders/root", loader(large));
+		responseCacheService.getOrLoad(2L, 1, "folders/root", loader(large));
+		responseCacheService.getOrLoad(1L, 1, "folders/root", loader(large));
+		responseCacheService.getOrLoad(3L, 1, "folders/root", loader(large));
+
+		assertEquals(1, responseCacheService.getEvictions());
+		responseCacheService.getOrLoad(1L, 1, "folders/root", loader(large));
+		responseCacheService.getOrLoad(2L, 1, "folders/root", loader(large));
+		assertEquals(4, loads.get());
+	}
+
+	private Supplier<ResponseEntity<?>> loader(String value) {
+		return () -> {
+			loads.incrementAndGet();
+			return ResponseEntity.ok(ApiResponse.success("ok", List.of(value)));
+		};
+	}
+
+	private static byte[] body(ResponseEntity<?> response) {
+		return (byte[]) response.getBody();
+	}
+}